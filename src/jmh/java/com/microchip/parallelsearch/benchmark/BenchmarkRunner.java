@@ -0,0 +1,35 @@
+package com.microchip.parallelsearch.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The BenchmarkRunner class is the entry point of the benchmarks jar.
+ * It accepts the regular JMH command line options and always adds the gc profiler,
+ * so every run reports the allocation rate next to throughput and average latency.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Runs the benchmarks selected by the command line options.
+     *
+     * @param args the JMH command line options
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares searching a batch of random literal queries one by one with searching them all in a single pass.
+ * The result cache is disabled, so every query is resolved by the index or the scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class BatchSearchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    @Param({"INDEX", "SCAN"})
+    private SearchMode searchMode;
+
+    private InMemoryParallelSearchEngine searchEngine;
+    private List<String> searchTexts;
+
+    @Setup
+    public void setUp() {
+        searchEngine = new InMemoryParallelSearchEngine();
+        searchEngine.setSearchMode(searchMode);
+        searchEngine.setResultCache(null);
+        Random random = new Random(42);
+        searchTexts = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            char[] letters = new char[1 + random.nextInt(Combinations.COMBINATION_LENGTH)];
+            for (int j = 0; j < letters.length; j++) {
+                letters[j] = (char) ('A' + random.nextInt(26));
+            }
+            searchTexts.add(new String(letters));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        searchEngine.close();
+    }
+
+    @Benchmark
+    public void searchEach(Blackhole blackhole) throws SearchException {
+        for (String searchText : searchTexts) {
+            blackhole.consume(searchEngine.search(searchText));
+        }
+    }
+
+    @Benchmark
+    public List<SearchResult> searchAll() throws SearchException {
+        return searchEngine.searchAll(searchTexts);
+    }
+}
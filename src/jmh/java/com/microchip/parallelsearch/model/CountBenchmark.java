@@ -0,0 +1,76 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full search with a count and with a search of the first 10 matches, in scan mode without a result cache.
+ * The count is analytic on the default corpus, so countScan() measures the counting scan of a copy of the corpus
+ * held in a plain CombinationStore instead.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class CountBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"A", "AB", "ABV", "A?V*"})
+    private String searchText;
+
+    private InMemoryParallelSearchEngine searchEngine;
+    private InMemoryParallelSearchEngine storeEngine;
+
+    @Setup
+    public void setUp() {
+        searchEngine = new InMemoryParallelSearchEngine();
+        searchEngine.setSearchMode(SearchMode.SCAN);
+        searchEngine.setResultCache(null);
+        storeEngine = new InMemoryParallelSearchEngine(new CombinationStore(Combinations.STORE.letters(), Combinations.COMBINATION_LENGTH));
+        storeEngine.setResultCache(null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        searchEngine.close();
+        storeEngine.close();
+    }
+
+    @Benchmark
+    public SearchResult search() throws SearchException {
+        return searchEngine.search(searchText);
+    }
+
+    @Benchmark
+    public int count() throws SearchException {
+        return searchEngine.count(searchText);
+    }
+
+    @Benchmark
+    public int countScan() throws SearchException {
+        return storeEngine.count(searchText);
+    }
+
+    @Benchmark
+    public SearchResult searchFirst() throws SearchException {
+        return searchEngine.searchFirst(searchText, LIMIT);
+    }
+}
@@ -0,0 +1,69 @@
+package com.microchip.parallelsearch.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a sequential scan of all combinations with the MatchKernel against the original matching,
+ * which lower-cased both the combination and the search text of every candidate and called String.contains().
+ * Run with the gc profiler to compare the allocation rate per scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class MatchKernelBenchmark {
+
+    @Param({"a", "ab", "abv", "abvd"})
+    private String searchText;
+
+    private List<String> combinations;
+    private MatchKernel matchKernel;
+
+    @Setup
+    public void setUp() {
+        combinations = new ArrayList<>(Combinations.ALL_COMBINATIONS);
+        matchKernel = MatchKernel.compile(searchText);
+    }
+
+    @Benchmark
+    public int lowerCaseContains() {
+        int matches = 0;
+        for (String combination : combinations) {
+            if (combination.toLowerCase().contains(searchText.toLowerCase())) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int matchKernel() {
+        byte[] letters = Combinations.STORE.letters();
+        int length = Combinations.STORE.getCombinationLength();
+        int matches = 0;
+        for (int offset = 0, end = letters.length; offset < end; offset += length) {
+            if (matchKernel.matches(letters, offset, length)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
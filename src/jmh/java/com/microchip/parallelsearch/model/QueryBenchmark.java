@@ -0,0 +1,53 @@
+package com.microchip.parallelsearch.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a sequential scan of all combinations with compiled queries of increasing complexity,
+ * from a literal compiled into a MatchKernel to globs and regular expressions compiled into a PatternAutomaton.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class QueryBenchmark {
+
+    @Param({"ab", "a?b*", "^[aeiou]*x$", "/^(ab|cd)+.?$/", "/[aeiou]{2,3}|q.?z/"})
+    private String query;
+
+    private CombinationMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        matcher = QueryCompiler.compile(query);
+    }
+
+    @Benchmark
+    public int scan() {
+        byte[] letters = Combinations.STORE.letters();
+        int length = Combinations.STORE.getCombinationLength();
+        int matches = 0;
+        for (int offset = 0, end = letters.length; offset < end; offset += length) {
+            if (matcher.matches(letters, offset, length)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
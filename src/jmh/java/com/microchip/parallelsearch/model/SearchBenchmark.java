@@ -0,0 +1,62 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks InMemoryParallelSearchEngine.search() across query lengths, CPU counts and search modes.
+ * CPU counts above the number of available processors are capped to it.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class SearchBenchmark {
+
+    @Param({"A", "AB", "ABV", "ABVD"})
+    private String searchText;
+
+    @Param({"1", "2", "4", "8"})
+    private int numCPUs;
+
+    @Param({"INDEX", "SCAN"})
+    private SearchMode searchMode;
+
+    private InMemoryParallelSearchEngine searchEngine;
+
+    @Setup
+    public void setUp() {
+        searchEngine = new InMemoryParallelSearchEngine();
+        searchEngine.setSearchMode(searchMode);
+        // Measure the index and the scan themselves rather than cache hits
+        searchEngine.setResultCache(null);
+        searchEngine.setNumCPUs(Math.min(numCPUs, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        searchEngine.close();
+    }
+
+    @Benchmark
+    public SearchResult search() throws SearchException {
+        return searchEngine.search(searchText);
+    }
+}
@@ -0,0 +1,57 @@
+package com.microchip.parallelsearch.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks getting a corpus and its substring index ready for the first lookup, either by generating the combinations
+ * and building the index from scratch or by opening a memory-mapped CorpusSnapshot of them.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class SnapshotBenchmark {
+
+    private Path snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        snapshotFile = Files.createTempFile("corpus", ".snapshot");
+        CorpusSnapshot.write(Combinations.STORE, SubstringIndex.getInstance(), null, snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public int[] generateAndIndex() {
+        return SubstringIndex.build(Combinations.generateCombinations()).lookup("AB");
+    }
+
+    @Benchmark
+    public int[] openSnapshot() throws IOException {
+        return CorpusSnapshot.open(snapshotFile).getSubstringIndex().lookup("AB");
+    }
+}
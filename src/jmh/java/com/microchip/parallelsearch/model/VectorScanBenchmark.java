@@ -0,0 +1,55 @@
+package com.microchip.parallelsearch.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-core throughput of a sequential scan of all combinations on the scalar backend,
+ * which matches one combination at a time with the MatchKernel, and on the vector backend,
+ * which matches a whole vector of combinations per instruction with the VectorScanner.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dlog4j.configurationFile=log4j2-benchmark.xml", "--add-modules=jdk.incubator.vector"})
+public class VectorScanBenchmark {
+
+    @Param({"a", "ab", "abv", "abvd"})
+    private String searchText;
+
+    private MatchKernel matchKernel;
+
+    @Setup
+    public void setUp() {
+        matchKernel = MatchKernel.compile(searchText);
+    }
+
+    @Benchmark
+    public OrdinalBuffer scalarScan() {
+        OrdinalBuffer matches = new OrdinalBuffer();
+        Combinations.STORE.scanRange(matchKernel, 0, Combinations.STORE.size(), matches);
+        return matches;
+    }
+
+    @Benchmark
+    public OrdinalBuffer vectorScan() {
+        OrdinalBuffer matches = new OrdinalBuffer();
+        VectorScanner.scanRange(Combinations.STORE, matchKernel, 0, Combinations.STORE.size(), matches);
+        return matches;
+    }
+}
@@ -1,5 +1,6 @@
 package com.microchip.parallelsearch;
 
+import com.microchip.parallelsearch.controller.InMemoryParallelSearchController;
 import com.microchip.parallelsearch.util.DisplayErrorInUI;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -25,6 +26,8 @@ public class InMemoryParallelSearchApplication extends Application {
 
     private static final Logger logger = LogManager.getLogger(InMemoryParallelSearchApplication.class);
 
+    private InMemoryParallelSearchController controller;
+
     /**
      * The start() method is the main entry point for the JavaFX application.
      * It loads the main FXML file, sets up the primary stage, and displays the application window.
@@ -38,6 +41,7 @@ public class InMemoryParallelSearchApplication extends Application {
             // Load the main FXML file
             FXMLLoader loader = new FXMLLoader(InMemoryParallelSearchApplication.class.getResource("in-memory-parallel-search.fxml"));
             Pane rootPane = loader.load();
+            controller = loader.getController();
 
             primaryStage.setScene(new Scene(rootPane));
             primaryStage.setTitle("In Memory Parallel Search");
@@ -57,6 +61,22 @@ public class InMemoryParallelSearchApplication extends Application {
         }
     }
 
+    /**
+     * The stop() method is called when the application exits.
+     * It shuts down the search engine of the main view, so its executor threads are released.
+     */
+    @Override
+    public void stop() {
+        logger.info("Entering into: stop()");
+        try {
+            if (controller != null) {
+                controller.shutdown();
+            }
+        } finally {
+            logger.info("Exiting from: stop()");
+        }
+    }
+
     /**
      * The main() method that launches the JavaFX application.
      *
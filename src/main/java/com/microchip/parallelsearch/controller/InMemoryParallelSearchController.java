@@ -1,20 +1,23 @@
 package com.microchip.parallelsearch.controller;
 
-import com.microchip.parallelsearch.exception.SearchException;
-import com.microchip.parallelsearch.model.Combinations;
+import com.microchip.parallelsearch.model.AsyncResultWriter;
 import com.microchip.parallelsearch.model.InMemoryParallelSearchEngine;
+import com.microchip.parallelsearch.model.MetricsReporter;
+import com.microchip.parallelsearch.model.OutputFormat;
 
 import com.microchip.parallelsearch.util.DisplayErrorInUI;
+import com.microchip.parallelsearch.util.SearchEngineFactory;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * The InMemoryParallelSearchController class for the main view.
@@ -22,7 +25,9 @@ import java.util.List;
  * It initializes the UI elements and handles user actions.
  * The search functionality is triggered by the search() method.
  * The initialize() method is called when the view is loaded to set up the initial state.
- * It uses the InMemoryParallelSearchEngine model to perform the search operation.
+ * It uses the InMemoryParallelSearchEngine model to perform the search operation, through the SearchViewModel adapter
+ * which runs it in the background and publishes the results to the UI.
+ * In type-ahead mode, a search is started for the text typed so far once typing has paused for the debounce delay.
  *
  * @author Ashish Kumar Mahuri
  */
@@ -30,9 +35,34 @@ public class InMemoryParallelSearchController {
 
     private static final Logger logger = LogManager.getLogger(InMemoryParallelSearchController.class);
 
+    /**
+     * The system property selecting the format the found strings are saved in, either JSON, NDJSON or BINARY.
+     */
+    public static final String OUTPUT_FORMAT_PROPERTY = "parallelsearch.output";
+
+    /**
+     * The system property holding the interval between two dumps of the search metrics to the log, in seconds.
+     * When it is unset, the metrics are only readable through JMX.
+     */
+    public static final String METRICS_INTERVAL_PROPERTY = "parallelsearch.metricsInterval";
+
+    /**
+     * The system property holding the time typing must pause before a type-ahead search starts, in milliseconds.
+     */
+    public static final String DEBOUNCE_MILLIS_PROPERTY = "parallelsearch.debounceMillis";
+
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    private static final String FOUND_STRINGS_FILE = "found_strings";
+
+    private static final String METRICS_NAME = "search-engine";
+
     @FXML
     private TextField searchTextField;
 
+    @FXML
+    private CheckBox typeAheadCheckBox;
+
     @FXML
     private ListView<String> foundStringsListView;
 
@@ -41,6 +71,12 @@ public class InMemoryParallelSearchController {
 
     private InMemoryParallelSearchEngine searchEngine;
 
+    private SearchViewModel searchViewModel;
+
+    private MetricsReporter metricsReporter;
+
+    private PauseTransition typeAheadDebounce;
+
     /**
      * Initializes the controller.
      * Sets up the search engine and populates the UI with random strings before search.
@@ -53,18 +89,36 @@ public class InMemoryParallelSearchController {
     private void initialize() {
         try {
             logger.info("Entering into: initialize()");
-            // Initialize the parallel search model
-            searchEngine = new InMemoryParallelSearchEngine();
+            // Initialize the parallel search model from the system properties
+            searchEngine = SearchEngineFactory.createEngine();
+            OutputFormat outputFormat = OutputFormat.valueOf(System.getProperty(OUTPUT_FORMAT_PROPERTY, OutputFormat.JSON.name()));
+            AsyncResultWriter resultWriter = new AsyncResultWriter(Path.of(FOUND_STRINGS_FILE + outputFormat.getExtension()),
+                    outputFormat, searchEngine.getCorpus());
+            resultWriter.setMetrics(searchEngine.getMetrics());
+            searchViewModel = new SearchViewModel(searchEngine, resultWriter);
+
+            // Expose the search metrics through JMX and dump them periodically if requested
+            searchEngine.getMetrics().register(METRICS_NAME);
+            Long metricsInterval = Long.getLong(METRICS_INTERVAL_PROPERTY);
+            if (metricsInterval != null) {
+                metricsReporter = new MetricsReporter(searchEngine.getMetrics(), Duration.ofSeconds(metricsInterval));
+            }
 
             // Bind the UI elements to the model properties
-            foundStringsListView.setItems(searchEngine.getFoundStrings());
-            statusLabel.textProperty().bind(searchEngine.getStatusProperty());
+            foundStringsListView.setItems(searchViewModel.getFoundStrings());
+            statusLabel.textProperty().bind(searchViewModel.getStatusProperty());
 
-            // Load all values in the UI before search in random order
-            String[] allCombinations = Combinations.ALL_COMBINATIONS.toArray(new String[0]);
-            List<String> randomOrderList = Arrays.asList(allCombinations);
-            Collections.shuffle(randomOrderList);
-            foundStringsListView.getItems().addAll(randomOrderList);
+            // Show all values in the UI before search in random order, decoding only the visible rows
+            searchViewModel.showCorpus();
+
+            // Search as the user types once typing pauses, restarting the delay on every keystroke
+            typeAheadDebounce = new PauseTransition(javafx.util.Duration.millis(Long.getLong(DEBOUNCE_MILLIS_PROPERTY, DEFAULT_DEBOUNCE_MILLIS)));
+            typeAheadDebounce.setOnFinished(event -> searchViewModel.searchAsYouType(searchTextField.getText()));
+            searchTextField.textProperty().addListener((observable, oldText, newText) -> {
+                if (typeAheadCheckBox.isSelected()) {
+                    typeAheadDebounce.playFromStart();
+                }
+            });
 
         } catch (Exception exception) {
             logger.error("Error occurred during initialization: {}", exception.getMessage());
@@ -78,29 +132,68 @@ public class InMemoryParallelSearchController {
     /**
      * Performs the search based on the entered text.
      * This method is called when the user triggers the search action.
-     * It retrieves the search text from the input field and triggers the search operation in the search engine.
+     * It retrieves the search text from the input field and starts the search operation in the background,
+     * superseding any search in progress and any pending type-ahead search.
      * It handles any exceptions during the search process and logs errors.
      */
     @FXML
     private void search() {
         try {
-            logger.info("Entering into: search()");
+            logger.debug("Entering into: search()");
+            typeAheadDebounce.stop();
 
             // Set the number of CPUs to be used
             searchEngine.setNumCPUs(Runtime.getRuntime().availableProcessors());
 
             // Perform the search using the entered text
             String searchText = searchTextField.getText();
-            searchEngine.search(searchText);
+            searchViewModel.search(searchText);
 
-        } catch (SearchException searchException) {
-            logger.error("Search exception occurred: {}", searchException.getMessage());
-            DisplayErrorInUI.displayErrorInUI("Search exception occurred: " + searchException.getCause().getMessage());
         } catch (Exception exception) {
             logger.error("Error occurred during search: {}", exception.getMessage());
             DisplayErrorInUI.displayErrorInUI("Error occurred during search: " + exception.getMessage());
         } finally {
-            logger.info("Exiting from: search()");
+            logger.debug("Exiting from: search()");
+        }
+    }
+
+    /**
+     * Cancels the search in progress and any pending type-ahead search.
+     * This method is called when the user triggers the cancel action.
+     */
+    @FXML
+    private void cancel() {
+        logger.debug("Entering into: cancel()");
+        try {
+            typeAheadDebounce.stop();
+            searchViewModel.cancel();
+            searchViewModel.getStatusProperty().set("Cancelled");
+        } finally {
+            logger.debug("Exiting from: cancel()");
+        }
+    }
+
+    /**
+     * Releases the resources of the search engine and saves the last pending result.
+     * This method is called when the application is stopped.
+     */
+    public void shutdown() {
+        logger.info("Entering into: shutdown()");
+        try {
+            if (typeAheadDebounce != null) {
+                typeAheadDebounce.stop();
+            }
+            if (searchViewModel != null) {
+                searchViewModel.close();
+            }
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            if (searchEngine != null) {
+                searchEngine.close();
+            }
+        } finally {
+            logger.info("Exiting from: shutdown()");
         }
     }
 }
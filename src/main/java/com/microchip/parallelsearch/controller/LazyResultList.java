@@ -0,0 +1,160 @@
+package com.microchip.parallelsearch.controller;
+
+import com.microchip.parallelsearch.model.Corpus;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The LazyResultList class is the observable list behind the result ListView.
+ * It holds the ordinals of the entries it shows in a growable int array instead of holding their Strings, so showing
+ * the whole corpus or a result of hundreds of thousands of matches costs 4 bytes per row. A row is decoded from the
+ * corpus only when the ListView asks for it, which its virtualized cells only do for the visible rows; decoded rows are
+ * kept in a few small pages, so scrolling back and forth over the same rows does not decode them again.
+ * The list can also show the whole corpus in corpus order without any array at all, row i being entry i.
+ * The list must only be modified on the FX thread, like any list bound to a control.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class LazyResultList extends ObservableListBase<String> {
+
+    private static final int PAGE_SIZE = 128;
+    private static final int MAX_PAGES = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Corpus corpus;
+    private int[] ordinals = new int[0]; // the ordinal of every row, or null if row i shows entry i
+    private int size;
+    private final Map<Integer, String[]> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * Constructs an empty list of entries of the given corpus.
+     *
+     * @param corpus The corpus the ordinals refer to.
+     */
+    public LazyResultList(Corpus corpus) {
+        this.corpus = corpus;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        String[] page = pages.computeIfAbsent(index / PAGE_SIZE, key -> new String[PAGE_SIZE]);
+        int slot = index % PAGE_SIZE;
+        if (page[slot] == null) {
+            page[slot] = corpus.get(ordinals == null ? index : ordinals[index]);
+        }
+        return page[slot];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces all rows with the entries of the given ordinals.
+     *
+     * @param newOrdinals The ordinals of the entries to show, owned by the list from now on.
+     */
+    public void setOrdinals(int[] newOrdinals) {
+        replaceRows(newOrdinals, newOrdinals.length);
+    }
+
+    /**
+     * Replaces all rows with all entries of the corpus, in corpus order.
+     */
+    public void showCorpus() {
+        replaceRows(null, corpus.size());
+    }
+
+    /**
+     * Replaces all rows and notifies the listeners.
+     */
+    private void replaceRows(int[] newOrdinals, int newSize) {
+        List<String> removed = new RemovedRows(ordinals, size);
+        ordinals = newOrdinals;
+        size = newSize;
+        pages.clear();
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Appends the entries of the given ordinals as new rows.
+     *
+     * @param moreOrdinals The ordinals of the entries to append.
+     * @throws IllegalStateException if the list shows the whole corpus.
+     */
+    public void appendOrdinals(int[] moreOrdinals) {
+        if (ordinals == null) {
+            throw new IllegalStateException("Rows cannot be appended to the whole corpus");
+        }
+        if (moreOrdinals.length == 0) {
+            return;
+        }
+        if (size + moreOrdinals.length > ordinals.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, Math.max(size + moreOrdinals.length, ordinals.length * 2));
+            ordinals = Arrays.copyOf(ordinals, capacity);
+        }
+        System.arraycopy(moreOrdinals, 0, ordinals, size, moreOrdinals.length);
+        int from = size;
+        size += moreOrdinals.length;
+        beginChange();
+        nextAdd(from, size);
+        endChange();
+    }
+
+    /**
+     * Removes all rows.
+     */
+    @Override
+    public void clear() {
+        setOrdinals(new int[0]);
+    }
+
+    /**
+     * The read-only list of the rows removed by a change, decoded only if a listener reads them.
+     */
+    private final class RemovedRows extends AbstractList<String> implements RandomAccess {
+
+        private final int[] removedOrdinals; // null if the removed rows showed the whole corpus
+        private final int removedSize;
+
+        RemovedRows(int[] removedOrdinals, int removedSize) {
+            this.removedOrdinals = removedOrdinals;
+            this.removedSize = removedSize;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= removedSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + removedSize);
+            }
+            return corpus.get(removedOrdinals == null ? index : removedOrdinals[index]);
+        }
+
+        @Override
+        public int size() {
+            return removedSize;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.microchip.parallelsearch.controller;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import com.microchip.parallelsearch.model.AsyncResultWriter;
+import com.microchip.parallelsearch.model.InMemoryParallelSearchEngine;
+import com.microchip.parallelsearch.model.ResultBatch;
+import com.microchip.parallelsearch.util.DisplayErrorInUI;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.ObservableList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The SearchViewModel class adapts the headless InMemoryParallelSearchEngine to JavaFX.
+ * Searches never run on the FX thread: a search is handed to a dispatcher thread, which starts streaming it from the engine,
+ * and the ordinals of its batches of matches are appended to a LazyResultList on the FX thread, so the first matches
+ * show up while the scan is still running, and only the rows the ListView displays are ever decoded into Strings.
+ * Batches are marshalled to the FX thread through a bounded demand: at most MAX_PENDING_BATCHES batches are requested
+ * ahead of the FX thread, and all batches pending when the FX thread gets to them are appended as a single change.
+ * When the search completes, the execution time is published to a status property the view binds to and the matches
+ * are handed to an AsyncResultWriter, which saves them in the background.
+ * Starting a new search supersedes and cancels the search in progress; a cancelled search stops once the chunks
+ * it is already scanning are done.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class SearchViewModel {
+
+    private static final Logger logger = LogManager.getLogger(SearchViewModel.class);
+
+    /**
+     * The maximum number of batches delivered by a search and not yet appended on the FX thread.
+     */
+    public static final int MAX_PENDING_BATCHES = 8;
+
+    /**
+     * The largest corpus shown in random order before a search; larger corpora are shown in corpus order,
+     * so the view never needs an array of ordinals as large as the corpus.
+     */
+    public static final int MAX_SHUFFLED_ENTRIES = 1 << 24;
+
+    private final InMemoryParallelSearchEngine searchEngine;
+    private final AsyncResultWriter resultWriter;
+    private final LazyResultList foundStrings;
+    private final StringProperty statusProperty;
+    private final ExecutorService dispatcherThread;
+    private volatile ViewSubscriber currentSearch;
+
+    /**
+     * Constructs a view model for the given search engine.
+     * Errors of the result writer are displayed in the UI.
+     *
+     * @param searchEngine The engine performing the searches.
+     * @param resultWriter The writer saving the results of completed searches.
+     */
+    public SearchViewModel(InMemoryParallelSearchEngine searchEngine, AsyncResultWriter resultWriter) {
+        this.searchEngine = searchEngine;
+        this.resultWriter = resultWriter;
+        resultWriter.setErrorHandler(exception -> DisplayErrorInUI.displayErrorInUI(
+                "Error occurred while saving the data into " + resultWriter.getOutputFormat() + " file: " + exception.getMessage()));
+        this.foundStrings = new LazyResultList(searchEngine.getCorpus());
+        this.statusProperty = new SimpleStringProperty("Idle");
+        this.dispatcherThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the observable list of found strings.
+     *
+     * @return The observable list of found strings.
+     */
+    public ObservableList<String> getFoundStrings() {
+        return foundStrings;
+    }
+
+    /**
+     * Shows all entries of the corpus before any search, in random order if the corpus is not larger than
+     * MAX_SHUFFLED_ENTRIES. This method must be called on the FX thread.
+     */
+    public void showCorpus() {
+        int size = searchEngine.getCorpus().size();
+        if (size > MAX_SHUFFLED_ENTRIES) {
+            foundStrings.showCorpus();
+            return;
+        }
+        // Shuffle the ordinals rather than the Strings, which are only decoded for the visible rows
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = i;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int ordinal = ordinals[i];
+            ordinals[i] = ordinals[j];
+            ordinals[j] = ordinal;
+        }
+        foundStrings.setOrdinals(ordinals);
+    }
+
+    /**
+     * Gets the status property.
+     *
+     * @return The status property.
+     */
+    public StringProperty getStatusProperty() {
+        return statusProperty;
+    }
+
+    /**
+     * Starts a streaming search for the given text in the background, superseding and cancelling the search in progress.
+     * This method must be called on the FX thread; the results are published to the view as they arrive.
+     * An invalid search text is reported in the UI.
+     *
+     * @param searchText The search text to look for in the combinations.
+     */
+    public void search(String searchText) {
+        logger.debug("Entering into: search()");
+        try {
+            submit(searchText, true);
+        } finally {
+            logger.debug("Exiting from: search()");
+        }
+    }
+
+    /**
+     * Starts a search for the text typed so far, superseding and cancelling the search in progress.
+     * Unlike search(), an invalid search text, which is common while a query is being typed, is only reported
+     * in the status, and an empty search text shows the whole corpus again.
+     * This method must be called on the FX thread.
+     *
+     * @param searchText The search text typed so far.
+     */
+    public void searchAsYouType(String searchText) {
+        logger.debug("Entering into: searchAsYouType()");
+        try {
+            if (searchText == null || searchText.isEmpty()) {
+                cancel();
+                showCorpus();
+                statusProperty.set("Idle");
+                return;
+            }
+            submit(searchText, false);
+        } finally {
+            logger.debug("Exiting from: searchAsYouType()");
+        }
+    }
+
+    /**
+     * Supersedes the search in progress with a search for the given text, started on the dispatcher thread.
+     *
+     * @param searchText    The search text.
+     * @param displayErrors Whether an invalid search text is displayed in an error dialog, or only in the status.
+     */
+    private void submit(String searchText, boolean displayErrors) {
+        cancel();
+        ViewSubscriber subscriber = new ViewSubscriber(System.nanoTime());
+        currentSearch = subscriber;
+        foundStrings.clear();
+        statusProperty.set("Searching...");
+        dispatcherThread.execute(() -> {
+            // Skip the searches superseded while they were waiting for the dispatcher
+            if (!subscriber.isCurrent()) {
+                return;
+            }
+            try {
+                searchEngine.stream(searchText).subscribe(subscriber);
+            } catch (SearchException searchException) {
+                String message = searchException.getCause() == null ? searchException.getMessage() : searchException.getCause().getMessage();
+                logger.error("Search exception occurred: {}", message);
+                Platform.runLater(() -> {
+                    if (subscriber.isCurrent()) {
+                        statusProperty.set("Invalid search text: " + message);
+                        if (displayErrors) {
+                            DisplayErrorInUI.displayErrorInUI("Search exception occurred: " + message);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancels the search in progress, if any.
+     * This method must be called on the FX thread.
+     */
+    public void cancel() {
+        ViewSubscriber subscriber = currentSearch;
+        currentSearch = null;
+        if (subscriber != null) {
+            subscriber.cancel();
+        }
+    }
+
+    /**
+     * Cancels the search in progress and saves the last pending result.
+     * This method is called when the application is stopped.
+     */
+    public void close() {
+        cancel();
+        dispatcherThread.shutdownNow();
+        resultWriter.close();
+    }
+
+    /**
+     * The subscriber appending the batches of one search to the view.
+     * Delivered batches are queued and drained on the FX thread, unless a newer search has replaced this one
+     * in the meantime; the matches are decoded by the list only when they are displayed. A new batch is requested
+     * for every batch drained, so the FX thread is never flooded by a fast search.
+     * The ordinals of all batches are collected as well, so the completed result can be saved without re-encoding it.
+     */
+    private final class ViewSubscriber implements Flow.Subscriber<ResultBatch> {
+
+        private final long startNanos;
+        private long firstResultNanos = -1;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private final List<int[]> batchOrdinals = new ArrayList<>();
+        private final ConcurrentLinkedQueue<int[]> pendingBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+        ViewSubscriber(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(MAX_PENDING_BATCHES);
+            }
+        }
+
+        @Override
+        public void onNext(ResultBatch batch) {
+            if (firstResultNanos < 0) {
+                firstResultNanos = System.nanoTime() - startNanos;
+            }
+            int[] ordinals = batch.getOrdinals();
+            batchOrdinals.add(ordinals);
+            pendingBatches.add(ordinals);
+            if (drainScheduled.compareAndSet(false, true)) {
+                Platform.runLater(this::drain);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            logger.error("Error occurred during search: {}", throwable.getMessage());
+            Platform.runLater(() -> {
+                if (isCurrent()) {
+                    statusProperty.set("Search failed");
+                    DisplayErrorInUI.displayErrorInUI("Error occurred during search: " + throwable.getMessage());
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            long executionNanos = System.nanoTime() - startNanos;
+            long firstResultMicros = TimeUnit.NANOSECONDS.toMicros(Math.max(firstResultNanos, 0));
+            if (isCurrent()) {
+                // Save the found strings in the background
+                resultWriter.submit(concatenate());
+            }
+            Platform.runLater(() -> {
+                if (isCurrent()) {
+                    statusProperty.set("Execution Time: " + TimeUnit.NANOSECONDS.toMillis(executionNanos) + "ms"
+                            + (firstResultNanos < 0 ? "" : " (first results after " + firstResultMicros + "µs)"));
+                }
+            });
+        }
+
+        /**
+         * Appends all pending batches to the view as a single change and requests as many new batches.
+         * This method runs on the FX thread.
+         */
+        private void drain() {
+            // Clear the flag first, so a batch queued after the queue has been emptied schedules another drain
+            drainScheduled.set(false);
+            List<int[]> batches = new ArrayList<>();
+            for (int[] batch = pendingBatches.poll(); batch != null; batch = pendingBatches.poll()) {
+                batches.add(batch);
+            }
+            if (batches.isEmpty() || !isCurrent()) {
+                return;
+            }
+            foundStrings.appendOrdinals(concatenate(batches));
+            subscription.request(batches.size());
+        }
+
+        /**
+         * Cancels the search of this subscriber, now or as soon as it is subscribed.
+         */
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private int[] concatenate() {
+            return concatenate(batchOrdinals);
+        }
+
+        private static int[] concatenate(List<int[]> batches) {
+            int count = 0;
+            for (int[] batch : batches) {
+                count += batch.length;
+            }
+            int[] ordinals = new int[count];
+            int position = 0;
+            for (int[] batch : batches) {
+                System.arraycopy(batch, 0, ordinals, position, batch.length);
+                position += batch.length;
+            }
+            return ordinals;
+        }
+
+        boolean isCurrent() {
+            return currentSearch == this;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.microchip.parallelsearch.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The AsyncResultWriter class saves search results to a file on a background thread.
+ * Submitting a result only records it as pending and returns; if several results are submitted before the
+ * background thread gets to them, only the latest one is written, so rapid successive searches cost one write.
+ * Results are streamed from their ordinals straight into a buffered file channel, without building Strings
+ * or an intermediate document, and the file is replaced atomically once it has been written completely.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class AsyncResultWriter implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(AsyncResultWriter.class);
+
+    /**
+     * The magic number at the start of a binary result file, "IMPR".
+     */
+    public static final int BINARY_MAGIC = 0x494D5052;
+
+    /**
+     * The version of the binary result file format.
+     */
+    public static final int BINARY_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Path path;
+    private final OutputFormat outputFormat;
+    private final Corpus corpus;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final AtomicReference<int[]> pending = new AtomicReference<>();
+    private final ExecutorService writerThread;
+    private volatile Consumer<Exception> errorHandler = exception -> { };
+    private volatile SearchMetrics metrics;
+
+    /**
+     * Constructs a writer saving results of the default combinations to the given file in the given format.
+     *
+     * @param path         The file the results are saved to.
+     * @param outputFormat The format of the file.
+     */
+    public AsyncResultWriter(Path path, OutputFormat outputFormat) {
+        this(path, outputFormat, Combinations.STORE);
+    }
+
+    /**
+     * Constructs a writer saving results of the given corpus to the given file in the given format.
+     *
+     * @param path         The file the results are saved to.
+     * @param outputFormat The format of the file.
+     * @param corpus       The corpus the ordinals of the results refer to.
+     */
+    public AsyncResultWriter(Path path, OutputFormat outputFormat, Corpus corpus) {
+        this.path = path;
+        this.outputFormat = outputFormat;
+        this.corpus = corpus;
+        this.writerThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the file the results are saved to.
+     *
+     * @return The path of the file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the format of the file.
+     *
+     * @return The output format.
+     */
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * Sets the handler called on the background thread when saving a result fails.
+     *
+     * @param errorHandler The error handler.
+     */
+    public void setErrorHandler(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Sets the metrics recording the time every save takes as the persist phase.
+     *
+     * @param metrics The metrics, or null to record nothing.
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Submits a result to be saved. A result still pending from an earlier submission is replaced.
+     *
+     * @param ordinals The ascending ordinals of the matching combinations, owned by the writer from now on.
+     */
+    public void submit(int[] ordinals) {
+        if (pending.getAndSet(ordinals) == null) {
+            writerThread.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Writes the pending result, if it has not been written by an earlier run already.
+     */
+    private void writePending() {
+        int[] ordinals = pending.getAndSet(null);
+        if (ordinals == null) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            write(ordinals);
+            SearchMetrics searchMetrics = metrics;
+            if (searchMetrics != null) {
+                searchMetrics.recordPhase(SearchPhase.PERSIST, System.nanoTime() - start);
+            }
+            logger.log(Level.DEBUG, "{} strings saved to {} file: {}", ordinals.length, outputFormat, path);
+        } catch (IOException ioException) {
+            logger.error("Error occurred while saving strings to {} file: {}", outputFormat, ioException.getMessage());
+            errorHandler.accept(ioException);
+        }
+    }
+
+    /**
+     * Writes a result to a temporary file next to the target and moves it into place.
+     *
+     * @param ordinals The ascending ordinals of the matching combinations.
+     * @throws IOException if the file cannot be written.
+     */
+    private void write(int[] ordinals) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (outputFormat == OutputFormat.BINARY) {
+                    writeBinary(channel, ordinals);
+                } else {
+                    try (OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+                        writeText(outputStream, ordinals);
+                    }
+                }
+            }
+            Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Streams a result as a JSON array or as newline delimited JSON strings.
+     *
+     * @param outputStream The stream to write to.
+     * @param ordinals     The ascending ordinals of the matching entries.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void writeText(OutputStream outputStream, int[] ordinals) throws IOException {
+        byte[] bytes = new byte[corpus.getMaxLength()];
+        char[] entry = new char[bytes.length];
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            boolean array = outputFormat == OutputFormat.JSON;
+            if (array) {
+                generator.writeStartArray();
+            }
+            for (int ordinal : ordinals) {
+                int length = corpus.getBytes(ordinal, bytes);
+                for (int i = 0; i < length; i++) {
+                    entry[i] = (char) (bytes[i] & 0xFF);
+                }
+                generator.writeString(entry, 0, length);
+                if (!array) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Writes a result in the binary format: magic number, version, combination length and count as big-endian ints,
+     * followed by the characters of every matching entry. Entries of a corpus whose entries differ in length are
+     * written with a combination length of 0, and each of them is followed by a line feed.
+     *
+     * @param channel  The channel to write to.
+     * @param ordinals The ascending ordinals of the matching entries.
+     * @throws IOException if the channel cannot be written.
+     */
+    private void writeBinary(FileChannel channel, int[] ordinals) throws IOException {
+        boolean fixedLength = corpus.hasFixedLength();
+        byte[] bytes = new byte[corpus.getMaxLength()];
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, bytes.length + 1));
+        buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(fixedLength ? bytes.length : 0).putInt(ordinals.length);
+        for (int ordinal : ordinals) {
+            int length = corpus.getBytes(ordinal, bytes);
+            if (buffer.remaining() < length + 1) {
+                flush(channel, buffer);
+            }
+            buffer.put(bytes, 0, length);
+            if (!fixedLength) {
+                buffer.put((byte) '\n');
+            }
+        }
+        flush(channel, buffer);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the pending result and stops the background thread.
+     */
+    @Override
+    public void close() {
+        logger.info("Entering into: close()");
+        try {
+            writerThread.shutdown();
+            if (!writerThread.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.error("Result writer did not finish within {} seconds", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        } finally {
+            logger.info("Exiting from: close()");
+        }
+    }
+}
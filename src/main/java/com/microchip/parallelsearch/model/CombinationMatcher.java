@@ -0,0 +1,27 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The CombinationMatcher interface is the compiled form of a query, matched against packed combinations
+ * by the parallel scan. A matcher is immutable and can be shared by all partitions of a scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public interface CombinationMatcher {
+
+    /**
+     * Checks whether this matcher can match any combination at all.
+     *
+     * @return true if no combination can match the query.
+     */
+    boolean matchesNothing();
+
+    /**
+     * Checks whether the combination at the given offset matches the query.
+     *
+     * @param letters The packed letters of all combinations.
+     * @param offset  The offset of the combination.
+     * @param length  The number of letters in the combination.
+     * @return true if the combination matches the query.
+     */
+    boolean matches(byte[] letters, int offset, int length);
+}
@@ -0,0 +1,146 @@
+package com.microchip.parallelsearch.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The CombinationStore class is a corpus holding fixed-length combinations in one contiguous byte array.
+ * The combination with ordinal i occupies the bytes [i * length, (i + 1) * length) as upper-case ASCII,
+ * so a scan walks the array sequentially instead of chasing references to individual String objects.
+ * Strings are only decoded on demand, for the combinations that are actually returned to the caller.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class CombinationStore extends Corpus {
+
+    private final byte[] letters;
+    private final int combinationLength;
+    private final int size;
+
+    /**
+     * Constructs a store over the given packed letters.
+     *
+     * @param letters           The ASCII letters of all combinations, back to back.
+     * @param combinationLength The number of letters in each combination.
+     * @throws IllegalArgumentException if the letters do not hold a whole number of combinations.
+     */
+    CombinationStore(byte[] letters, int combinationLength) {
+        if (combinationLength <= 0 || letters.length % combinationLength != 0) {
+            throw new IllegalArgumentException("Invalid combination length: " + combinationLength);
+        }
+        this.letters = letters;
+        this.combinationLength = combinationLength;
+        this.size = letters.length / combinationLength;
+    }
+
+    /**
+     * Gets the number of combinations in the store.
+     *
+     * @return The number of combinations.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return combinationLength;
+    }
+
+    /**
+     * Gets the number of letters in each combination.
+     *
+     * @return The combination length.
+     */
+    public int getCombinationLength() {
+        return combinationLength;
+    }
+
+    /**
+     * Decodes the combination with the given ordinal into a String.
+     *
+     * @param ordinal The ordinal of the combination.
+     * @return The combination as a String.
+     */
+    public String decode(int ordinal) {
+        return new String(letters, ordinal * combinationLength, combinationLength, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public boolean hasFixedLength() {
+        return true;
+    }
+
+    @Override
+    public String get(int ordinal) {
+        return decode(ordinal);
+    }
+
+    @Override
+    int getBytes(int ordinal, byte[] target) {
+        System.arraycopy(letters, ordinal * combinationLength, target, 0, combinationLength);
+        return combinationLength;
+    }
+
+    @Override
+    void scanRange(CombinationMatcher matcher, int start, int end, OrdinalBuffer matches) {
+        int length = combinationLength;
+        for (int i = start, offset = start * length; i < end; i++, offset += length) {
+            if (matcher.matches(letters, offset, length)) {
+                // Add the ordinal of the matching combination to the buffer of this partition
+                matches.add(i);
+            }
+        }
+    }
+
+    @Override
+    int countRange(CombinationMatcher matcher, int start, int end) {
+        int length = combinationLength;
+        int count = 0;
+        for (int offset = start * length, endOffset = end * length; offset < endOffset; offset += length) {
+            if (matcher.matches(letters, offset, length)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    boolean matches(CombinationMatcher matcher, int ordinal) {
+        return matcher.matches(letters, ordinal * combinationLength, combinationLength);
+    }
+
+    @Override
+    void forEach(int start, int end, EntryVisitor visitor) {
+        for (int i = start, offset = start * combinationLength; i < end; i++, offset += combinationLength) {
+            visitor.visit(i, letters, offset, combinationLength);
+        }
+    }
+
+    /**
+     * Gets the packed letters backing this store. The array is shared and must not be modified.
+     *
+     * @return The packed letters.
+     */
+    byte[] letters() {
+        return letters;
+    }
+
+    /**
+     * Encodes a search text into the upper-case ASCII used by every corpus.
+     *
+     * @param text The text to encode.
+     * @return The encoded text, or null if the text contains a character that never occurs in an entry.
+     */
+    static byte[] encode(String text) {
+        byte[] encoded = new byte[text.length()];
+        for (int i = 0; i < encoded.length; i++) {
+            char ch = text.charAt(i);
+            if (ch > Byte.MAX_VALUE) {
+                return null;
+            }
+            encoded[i] = (byte) Character.toUpperCase(ch);
+        }
+        return encoded;
+    }
+}
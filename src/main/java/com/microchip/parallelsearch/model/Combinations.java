@@ -3,51 +3,56 @@ package com.microchip.parallelsearch.model;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * This class is responsible for generating all combinations of 4 capital letters.
- * It provides a list of all possible combinations and a method to generate them.
+ * This class is responsible for generating all combinations of 4 capital letters, the default corpus of the search engine.
+ * The combinations are packed into a CombinationStore of 4 bytes each, and exposed as a list view
+ * which decodes a String only when an element is accessed.
+ * Other alphabets and lengths are available through the CombinatorialCorpus.
  *
  * @author Ashish Kumar Mahuri
  */
 public class Combinations {
 
     private static final Logger logger = LogManager.getLogger(Combinations.class);
+
+    /**
+     * The number of letters in each combination.
+     */
+    public static final int COMBINATION_LENGTH = 4;
+
+    /**
+     * The letters the combinations are made of, in digit order.
+     */
+    public static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
     private Combinations() {
         throw new IllegalStateException("Utility class");
     }
 
     /**
-     * The list of all possible combinations of 4 capital letters.
+     * The packed store of all possible combinations of 4 capital letters.
      */
-    public static final List<String> ALL_COMBINATIONS = generateCombinations();
+    public static final CombinationStore STORE = generateCombinations();
 
     /**
-     * Generates all possible combinations of 4 capital letters.
+     * The list of all possible combinations of 4 capital letters, decoded from the STORE on access.
+     */
+    public static final List<String> ALL_COMBINATIONS = STORE.asList();
+
+    /**
+     * Generates all possible combinations of 4 capital letters, in parallel.
+     * The combination at ordinal i spells i in base 26, with 'A' as digit zero.
      *
-     * @return The list of all combinations.
+     * @return The packed store of all combinations.
      */
-    private static List<String> generateCombinations() {
+    static CombinationStore generateCombinations() {
         logger.info("Entering into: generateCombinations()");
-        List<String> combinations = new ArrayList<>();
-        int totalCombinations = (int) Math.pow(26, 4);
-
-        for (int i = 0; i < totalCombinations; i++) {
-            char[] combination = new char[4];
-            int remaining = i;
-
-            for (int j = 0; j < 4; j++) {
-                int index = remaining % 26;
-                char ch = (char) ('A' + index);
-                combination[3 - j] = ch;
-                remaining /= 26;
-            }
-
-            combinations.add(String.valueOf(combination));
+        try {
+            return new CombinatorialCorpus(ALPHABET, COMBINATION_LENGTH).materialize();
+        } finally {
+            logger.info("Exiting from: generateCombinations()");
         }
-
-        return combinations;
     }
 }
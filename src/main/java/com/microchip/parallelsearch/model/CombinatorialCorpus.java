@@ -0,0 +1,207 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+/**
+ * The CombinatorialCorpus class is the corpus of all strings of a fixed length over an alphabet, computed from the ordinal.
+ * The entry at ordinal i spells i in base alphabet size, with the first character of the alphabet as digit zero,
+ * so nothing is materialized up front: a scan decodes the first entry of its range and then advances the entry
+ * like an odometer, rewriting only the characters that change.
+ * The corpus can still be materialized into a CombinationStore, which is generated in parallel.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class CombinatorialCorpus extends Corpus {
+
+    private static final Logger logger = LogManager.getLogger(CombinatorialCorpus.class);
+
+    private static final int GENERATION_BLOCK_SIZE = 1 << 16;
+
+    private final byte[] alphabet;
+    private final int length;
+    private final int size;
+
+    /**
+     * Constructs the corpus of all strings of the given length over the given alphabet.
+     *
+     * @param alphabet The distinct ASCII characters of the alphabet, in digit order; letters are upper-cased.
+     * @param length   The length of every entry.
+     * @throws IllegalArgumentException if the alphabet is empty, repeats a character or is not ASCII,
+     *                                  or if the corpus would hold more than Integer.MAX_VALUE entries.
+     */
+    public CombinatorialCorpus(String alphabet, int length) {
+        byte[] characters = CombinationStore.encode(alphabet);
+        if (characters == null || characters.length == 0 || length <= 0) {
+            throw new IllegalArgumentException("Invalid alphabet or length: " + alphabet + ", " + length);
+        }
+        boolean[] seen = new boolean[Byte.MAX_VALUE + 1];
+        for (byte character : characters) {
+            if (seen[character]) {
+                throw new IllegalArgumentException("Alphabet repeats the character: " + (char) character);
+            }
+            seen[character] = true;
+        }
+        long entries = 1;
+        for (int i = 0; i < length; i++) {
+            entries *= characters.length;
+            if (entries > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corpus exceeds " + Integer.MAX_VALUE + " entries");
+            }
+        }
+        this.alphabet = characters;
+        this.length = length;
+        this.size = (int) entries;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return length;
+    }
+
+    /**
+     * Gets the alphabet.
+     *
+     * @return The characters of the alphabet, in digit order.
+     */
+    public String getAlphabet() {
+        return new String(alphabet, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public boolean hasFixedLength() {
+        return true;
+    }
+
+    @Override
+    public String get(int ordinal) {
+        byte[] entry = new byte[length];
+        decode(ordinal, entry, new int[length]);
+        return new String(entry, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    int getBytes(int ordinal, byte[] target) {
+        decode(ordinal, target, new int[length]);
+        return length;
+    }
+
+    @Override
+    void scanRange(CombinationMatcher matcher, int start, int end, OrdinalBuffer matches) {
+        if (start >= end) {
+            return;
+        }
+        byte[] entry = new byte[length];
+        int[] digits = new int[length];
+        decode(start, entry, digits);
+        for (int i = start; ; ) {
+            if (matcher.matches(entry, 0, length)) {
+                matches.add(i);
+            }
+            if (++i == end) {
+                return;
+            }
+            increment(entry, digits);
+        }
+    }
+
+    @Override
+    boolean matches(CombinationMatcher matcher, int ordinal) {
+        byte[] entry = new byte[length];
+        decode(ordinal, entry, new int[length]);
+        return matcher.matches(entry, 0, length);
+    }
+
+    @Override
+    void forEach(int start, int end, EntryVisitor visitor) {
+        if (start >= end) {
+            return;
+        }
+        byte[] entry = new byte[length];
+        int[] digits = new int[length];
+        decode(start, entry, digits);
+        for (int i = start; ; ) {
+            visitor.visit(i, entry, 0, length);
+            if (++i == end) {
+                return;
+            }
+            increment(entry, digits);
+        }
+    }
+
+    /**
+     * Materializes all entries into a packed CombinationStore.
+     * The store is generated in parallel, in blocks which each decode their first entry and advance from there.
+     *
+     * @return The packed store holding all entries in ordinal order.
+     * @throws IllegalArgumentException if the entries do not fit into a single array.
+     */
+    public CombinationStore materialize() {
+        logger.info("Entering into: materialize()");
+        try {
+            long byteCount = (long) size * length;
+            if (byteCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Corpus is too large to materialize: " + byteCount + " bytes");
+            }
+            byte[] letters = new byte[(int) byteCount];
+            int blocks = (size + GENERATION_BLOCK_SIZE - 1) / GENERATION_BLOCK_SIZE;
+            IntStream.range(0, blocks).parallel().forEach(block -> {
+                int start = block * GENERATION_BLOCK_SIZE;
+                int end = Math.min(size, start + GENERATION_BLOCK_SIZE);
+                forEach(start, end, (ordinal, entry, offset, entryLength) ->
+                        System.arraycopy(entry, offset, letters, ordinal * length, entryLength));
+            });
+            logger.log(Level.INFO, "Materialized {} entries of {} characters", size, length);
+            return new CombinationStore(letters, length);
+        } finally {
+            logger.info("Exiting from: materialize()");
+        }
+    }
+
+    /**
+     * Decodes an ordinal into the characters and digits of its entry.
+     *
+     * @param ordinal The ordinal of the entry.
+     * @param entry   The array receiving the characters.
+     * @param digits  The array receiving the digits.
+     */
+    private void decode(int ordinal, byte[] entry, int[] digits) {
+        int remaining = ordinal;
+        for (int j = length - 1; j >= 0; j--) {
+            digits[j] = remaining % alphabet.length;
+            entry[j] = alphabet[digits[j]];
+            remaining /= alphabet.length;
+        }
+    }
+
+    /**
+     * Advances an entry to the next ordinal, carrying into the preceding characters.
+     * The entry must not be the last one.
+     *
+     * @param entry  The characters of the entry.
+     * @param digits The digits of the entry.
+     */
+    private void increment(byte[] entry, int[] digits) {
+        int j = length - 1;
+        while (++digits[j] == alphabet.length) {
+            digits[j] = 0;
+            entry[j] = alphabet[0];
+            j--;
+        }
+        entry[j] = alphabet[digits[j]];
+    }
+
+    @Override
+    public String toString() {
+        return "CombinatorialCorpus[alphabet=" + getAlphabet() + ", length=" + length + ", size=" + size + "]";
+    }
+}
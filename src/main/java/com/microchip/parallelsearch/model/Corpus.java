@@ -0,0 +1,157 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The Corpus class is the set of entries a search engine searches, addressed by ordinals from 0 to size() - 1.
+ * Entries are upper-case ASCII strings; a corpus either holds them packed in memory, like the CombinationStore
+ * and the WordListCorpus, or computes them from their ordinal, like the CombinatorialCorpus.
+ * Matching never decodes entries into Strings: a corpus hands the bytes of its entries straight to a CombinationMatcher,
+ * and Strings are only decoded on demand, for the entries that are actually returned to the caller.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public abstract class Corpus {
+
+    private final List<String> view = new DecodingList();
+
+    /**
+     * Constructs a corpus. Corpora are only implemented in this package.
+     */
+    Corpus() {
+    }
+
+    /**
+     * Gets the number of entries in the corpus.
+     *
+     * @return The number of entries.
+     */
+    public abstract int size();
+
+    /**
+     * Gets the length of the longest entry.
+     *
+     * @return The maximum entry length.
+     */
+    public abstract int getMaxLength();
+
+    /**
+     * Decodes the entry with the given ordinal into a String.
+     *
+     * @param ordinal The ordinal of the entry.
+     * @return The entry as a String.
+     */
+    public abstract String get(int ordinal);
+
+    /**
+     * Checks whether all entries have the same length.
+     *
+     * @return true if every entry is getMaxLength() characters long.
+     */
+    public boolean hasFixedLength() {
+        return false;
+    }
+
+    /**
+     * Gets a read-only list view of the corpus which decodes each entry when it is accessed.
+     *
+     * @return The list view of all entries.
+     */
+    public List<String> asList() {
+        return view;
+    }
+
+    /**
+     * Copies the bytes of an entry.
+     *
+     * @param ordinal The ordinal of the entry.
+     * @param target  The array receiving the bytes, of at least getMaxLength() elements.
+     * @return The number of bytes of the entry.
+     */
+    abstract int getBytes(int ordinal, byte[] target);
+
+    /**
+     * Scans a range of entries sequentially with the given matcher.
+     *
+     * @param matcher The compiled query.
+     * @param start   The first ordinal of the range.
+     * @param end     The ordinal after the last one of the range.
+     * @param matches The buffer the ordinals of the matching entries are appended to, in ascending order.
+     */
+    abstract void scanRange(CombinationMatcher matcher, int start, int end, OrdinalBuffer matches);
+
+    /**
+     * Counts the entries of a range which match the given matcher, without collecting their ordinals.
+     *
+     * @param matcher The compiled query.
+     * @param start   The first ordinal of the range.
+     * @param end     The ordinal after the last one of the range.
+     * @return The number of matching entries.
+     */
+    int countRange(CombinationMatcher matcher, int start, int end) {
+        int[] count = new int[1];
+        forEach(start, end, (ordinal, letters, offset, length) -> {
+            if (matcher.matches(letters, offset, length)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Checks whether a single entry matches the given matcher.
+     *
+     * @param matcher The compiled query.
+     * @param ordinal The ordinal of the entry.
+     * @return true if the entry matches.
+     */
+    abstract boolean matches(CombinationMatcher matcher, int ordinal);
+
+    /**
+     * Visits the bytes of a range of entries in ascending order.
+     *
+     * @param start   The first ordinal of the range.
+     * @param end     The ordinal after the last one of the range.
+     * @param visitor The visitor called for every entry.
+     */
+    abstract void forEach(int start, int end, EntryVisitor visitor);
+
+    /**
+     * The EntryVisitor interface receives the bytes of the entries of a corpus.
+     * The bytes are only valid during the call and must not be modified.
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        /**
+         * Visits an entry.
+         *
+         * @param ordinal The ordinal of the entry.
+         * @param letters The array holding the entry.
+         * @param offset  The offset of the entry in the array.
+         * @param length  The number of bytes of the entry.
+         */
+        void visit(int ordinal, byte[] letters, int offset, int length);
+    }
+
+    /**
+     * The read-only list view decoding entries on access.
+     */
+    private final class DecodingList extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return Corpus.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return Corpus.this.size();
+        }
+    }
+}
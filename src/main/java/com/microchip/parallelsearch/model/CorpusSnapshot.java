@@ -0,0 +1,405 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The CorpusSnapshot class saves a corpus and its substring index to a versioned binary file and opens them again
+ * by memory-mapping the file, so a new search engine can search right after launch without generating the corpus,
+ * reading it into the heap or rebuilding the index.
+ * <p>
+ * The file starts with a header of 80 bytes: the magic number, the version, the kind of corpus, the number of entries,
+ * the maximum entry length and the number of index keys as ints, followed by the position and length of the letters,
+ * the positions of the entry offsets, the posting offsets and the postings, and the position and length of the source
+ * as longs. All numbers are little-endian and every section is aligned to 8 bytes. Fixed-length entries are stored back to back, entries of different lengths
+ * are preceded by the offset of every entry, and a CombinatorialCorpus stores only its alphabet as its letters.
+ * So does Combinations.STORE, which is opened as Combinations.STORE again, so the default corpus keeps its analytic
+ * counts and its vector scan when it is searched from a snapshot.
+ * The index is stored as the offsets of its posting lists followed by the postings; it is left out if the snapshot
+ * is saved without an index. The source is a UTF-8 description of where the corpus came from, such as the corpus
+ * specification and the size and modification time of a word list, which tells whether the snapshot is stale.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class CorpusSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(CorpusSnapshot.class);
+
+    /**
+     * The magic number at the start of a snapshot file, "PSNP".
+     */
+    public static final int MAGIC = 0x50534E50;
+
+    /**
+     * The version of the snapshot file format.
+     */
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 80;
+    private static final int ALIGNMENT = Long.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int KIND_FIXED_LENGTH = 0;
+    private static final int KIND_VARIABLE_LENGTH = 1;
+    private static final int KIND_COMBINATORIAL = 2;
+
+    private final Path path;
+    private final Corpus corpus;
+    private final SubstringIndex substringIndex;
+    private final String source;
+
+    private CorpusSnapshot(Path path, Corpus corpus, SubstringIndex substringIndex, String source) {
+        this.path = path;
+        this.corpus = corpus;
+        this.substringIndex = substringIndex;
+        this.source = source;
+    }
+
+    /**
+     * Saves a corpus and its substring index to a snapshot file.
+     * The file is written next to the target and moved into place once it is complete.
+     *
+     * @param corpus         The corpus to save.
+     * @param substringIndex The substring index of the corpus, or null to save the corpus alone.
+     * @param source         The description of where the corpus came from, or null.
+     * @param path           The snapshot file.
+     * @throws IOException              if the file cannot be written.
+     * @throws IllegalArgumentException if a section of the corpus or the index is larger than 2 GB.
+     */
+    public static void write(Corpus corpus, SubstringIndex substringIndex, String source, Path path) throws IOException {
+        logger.info("Entering into: write()");
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    write(channel, corpus, substringIndex, source == null ? "" : source);
+                    channel.force(true);
+                } catch (UncheckedIOException uncheckedIOException) {
+                    throw uncheckedIOException.getCause();
+                }
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            logger.log(Level.INFO, "Snapshot of {} saved to: {}", corpus, path);
+        } finally {
+            logger.info("Exiting from: write()");
+        }
+    }
+
+    /**
+     * Opens a snapshot file by mapping its sections into memory.
+     * The file is only read as far as its header; entries and postings are paged in when they are searched.
+     *
+     * @param path The snapshot file.
+     * @return The opened snapshot.
+     * @throws IOException if the file cannot be read, is not a snapshot or has an unsupported version.
+     */
+    public static CorpusSnapshot open(Path path) throws IOException {
+        logger.info("Entering into: open()");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Not a corpus snapshot: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a corpus snapshot: " + path);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a corpus snapshot: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION + ": " + path);
+            }
+            int kind = header.getInt();
+            int size = header.getInt();
+            int maxLength = header.getInt();
+            int keyCount = header.getInt();
+            long lettersPosition = header.getLong();
+            long lettersLength = header.getLong();
+            long offsetsPosition = header.getLong();
+            long postingOffsetsPosition = header.getLong();
+            long postingsPosition = header.getLong();
+            long sourcePosition = header.getLong();
+            long sourceLength = header.getLong();
+
+            ByteBuffer letters = map(channel, fileSize, lettersPosition, lettersLength);
+            Corpus corpus = switch (kind) {
+                case KIND_FIXED_LENGTH -> new MappedCorpus(letters, maxLength);
+                case KIND_VARIABLE_LENGTH -> new MappedCorpus(letters,
+                        map(channel, fileSize, offsetsPosition, (size + 1L) * Integer.BYTES).asIntBuffer(), maxLength);
+                case KIND_COMBINATORIAL -> {
+                    byte[] alphabet = new byte[letters.capacity()];
+                    letters.get(0, alphabet);
+                    String alphabetText = new String(alphabet, StandardCharsets.US_ASCII);
+                    yield alphabetText.equals(Combinations.ALPHABET) && maxLength == Combinations.COMBINATION_LENGTH
+                            ? Combinations.STORE : new CombinatorialCorpus(alphabetText, maxLength);
+                }
+                default -> throw new IOException("Unknown corpus kind " + kind + ": " + path);
+            };
+            if (corpus.size() != size) {
+                throw new IOException("Corpus size does not match the header: " + path);
+            }
+
+            SubstringIndex substringIndex = null;
+            if (keyCount != 0) {
+                if (keyCount != SubstringIndex.KEY_COUNT) {
+                    throw new IOException("Snapshot index has " + keyCount + " keys, expected " + SubstringIndex.KEY_COUNT + ": " + path);
+                }
+                IntBuffer postingOffsets = map(channel, fileSize, postingOffsetsPosition, (keyCount + 1L) * Integer.BYTES).asIntBuffer();
+                long postingCount = postingOffsets.get(keyCount);
+                IntBuffer postings = map(channel, fileSize, postingsPosition, postingCount * Integer.BYTES).asIntBuffer();
+                substringIndex = new SubstringIndex(postingOffsets, postings);
+            }
+            ByteBuffer sourceBytes = map(channel, fileSize, sourcePosition, sourceLength);
+            String source = StandardCharsets.UTF_8.decode(sourceBytes).toString();
+            logger.log(Level.INFO, "Snapshot of {} opened from: {}", corpus, path);
+            return new CorpusSnapshot(path, corpus, substringIndex, source);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            throw new IOException("Corrupt corpus snapshot: " + path, illegalArgumentException);
+        } finally {
+            logger.info("Exiting from: open()");
+        }
+    }
+
+    /**
+     * Gets the snapshot file.
+     *
+     * @return The path of the snapshot file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the corpus of the snapshot.
+     *
+     * @return The mapped corpus.
+     */
+    public Corpus getCorpus() {
+        return corpus;
+    }
+
+    /**
+     * Gets the substring index of the snapshot.
+     *
+     * @return The mapped index, or null if the snapshot was saved without an index.
+     */
+    public SubstringIndex getSubstringIndex() {
+        return substringIndex;
+    }
+
+    /**
+     * Gets the description of where the corpus of the snapshot came from.
+     *
+     * @return The source the snapshot was saved with, or an empty string if it was saved without one.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Maps a section of the snapshot file.
+     *
+     * @param channel  The channel of the file.
+     * @param fileSize The size of the file.
+     * @param position The position of the section.
+     * @param length   The length of the section in bytes.
+     * @return The read-only little-endian mapping of the section.
+     * @throws IOException if the section lies outside the file or is larger than 2 GB.
+     */
+    private static ByteBuffer map(FileChannel channel, long fileSize, long position, long length) throws IOException {
+        if (position < HEADER_SIZE || length < 0 || length > Integer.MAX_VALUE || position + length > fileSize) {
+            throw new IOException("Snapshot section at " + position + " of " + length + " bytes lies outside the file");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the header and all sections of a snapshot.
+     *
+     * @param channel        The channel to write to.
+     * @param corpus         The corpus to save.
+     * @param substringIndex The substring index of the corpus, or null.
+     * @param source         The description of where the corpus came from.
+     * @throws IOException if the channel cannot be written.
+     */
+    private static void write(FileChannel channel, Corpus corpus, SubstringIndex substringIndex, String source) throws IOException {
+        SectionWriter writer = new SectionWriter(channel);
+        int size = corpus.size();
+        int kind;
+        long offsetsPosition = 0;
+        long lettersPosition;
+        long lettersLength;
+        String alphabet = corpus instanceof CombinatorialCorpus combinatorialCorpus ? combinatorialCorpus.getAlphabet()
+                : corpus == Combinations.STORE ? Combinations.ALPHABET : null;
+        if (alphabet != null) {
+            kind = KIND_COMBINATORIAL;
+            lettersPosition = writer.align();
+            writer.putBytes(alphabet.getBytes(StandardCharsets.US_ASCII), 0, alphabet.length());
+        } else if (corpus.hasFixedLength()) {
+            kind = KIND_FIXED_LENGTH;
+            if ((long) size * corpus.getMaxLength() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corpus is too large to be mapped: " + corpus);
+            }
+            lettersPosition = writer.align();
+            corpus.forEach(0, size, writer::putEntry);
+        } else {
+            kind = KIND_VARIABLE_LENGTH;
+            if (size + 1L > Integer.MAX_VALUE / Integer.BYTES) {
+                throw new IllegalArgumentException("Corpus is too large to be mapped: " + corpus);
+            }
+            offsetsPosition = writer.align();
+            long[] offset = {0};
+            writer.putInt(0);
+            corpus.forEach(0, size, (ordinal, letters, entryOffset, length) -> {
+                offset[0] += length;
+                if (offset[0] > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Corpus is too large to be mapped: " + corpus);
+                }
+                writer.putInt((int) offset[0]);
+            });
+            lettersPosition = writer.align();
+            corpus.forEach(0, size, writer::putEntry);
+        }
+        lettersLength = writer.position() - lettersPosition;
+
+        int keyCount = 0;
+        long postingOffsetsPosition = 0;
+        long postingsPosition = 0;
+        if (substringIndex != null) {
+            if ((long) substringIndex.getPostingCount() * Integer.BYTES > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Substring index is too large to be mapped: " + substringIndex.getPostingCount() + " postings");
+            }
+            keyCount = SubstringIndex.KEY_COUNT;
+            postingOffsetsPosition = writer.align();
+            writer.putInts(substringIndex.postingOffsets());
+            postingsPosition = writer.align();
+            writer.putInts(substringIndex.postings());
+        }
+        byte[] sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+        long sourcePosition = writer.align();
+        writer.putBytes(sourceBytes, 0, sourceBytes.length);
+        writer.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(size).putInt(corpus.getMaxLength()).putInt(keyCount)
+                .putLong(lettersPosition).putLong(lettersLength).putLong(offsetsPosition)
+                .putLong(postingOffsetsPosition).putLong(postingsPosition).putLong(sourcePosition).putLong(sourceBytes.length);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CorpusSnapshot[path=" + path + ", corpus=" + corpus + ", indexed=" + (substringIndex != null)
+                + ", source=" + source + "]";
+    }
+
+    /**
+     * The SectionWriter class streams the sections of a snapshot through a little-endian buffer,
+     * starting right after the header, which is written last.
+     */
+    private static final class SectionWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed = HEADER_SIZE;
+
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        /**
+         * Pads the file up to the next section boundary.
+         *
+         * @return The position of the next section.
+         */
+        long align() {
+            while (position() % ALIGNMENT != 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put((byte) 0);
+            }
+            return position();
+        }
+
+        void putInt(int value) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putInts(IntBuffer values) {
+            while (values.hasRemaining()) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush();
+                }
+                int count = Math.min(values.remaining(), buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values.slice(values.position(), count));
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                values.position(values.position() + count);
+            }
+        }
+
+        void putEntry(int ordinal, byte[] letters, int offset, int length) {
+            putBytes(letters, offset, length);
+        }
+
+        void putBytes(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        /**
+         * Writes the buffered bytes to the channel.
+         *
+         * @throws UncheckedIOException if the channel cannot be written.
+         */
+        void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    flushed += channel.write(buffer, flushed);
+                }
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The ExecutionMode enum selects how the SearchExecutor runs the partitions of a parallel scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum ExecutionMode {
+
+    /**
+     * Run the scan on a long-lived ForkJoinPool sized to the configured number of CPUs.
+     */
+    FORK_JOIN,
+
+    /**
+     * Run every partition of the scan on its own virtual thread, with at most the configured number of CPUs scanning at once.
+     */
+    VIRTUAL_THREADS
+}
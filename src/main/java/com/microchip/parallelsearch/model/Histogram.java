@@ -0,0 +1,117 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Histogram class records the distribution of non-negative values, such as durations in nanoseconds or result sizes,
+ * in logarithmic buckets. Every power of two is split into 8 buckets, so a percentile is reported within 12.5%
+ * of the recorded value whatever its magnitude, in a fixed array of 488 counters.
+ * Recording is lock-free and costs a few atomic increments, so it can be done on every search from any thread.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value.
+     *
+     * @param value The value, negative values are recorded as 0.
+     */
+    void record(long value) {
+        long recorded = Math.max(0, value);
+        counts.incrementAndGet(bucket(recorded));
+        count.increment();
+        sum.add(recorded);
+        max.accumulate(recorded);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The sum.
+     */
+    long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value below which the given fraction of the recorded values lie.
+     *
+     * @param percentile The fraction, from 0 to 1.
+     * @return The upper bound of the bucket holding the percentile, at most the maximum, or 0 if nothing was recorded.
+     */
+    long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            total += snapshot[bucket];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return Math.min(getMax(), lowerBound(bucket + 1) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the bucket of a value: values below 8 have a bucket each, larger values share a bucket with the values
+     * having the same highest bit and the same next 3 bits.
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the smallest value of a bucket.
+     */
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket >= BUCKET_COUNT) {
+            return Long.MAX_VALUE;
+        }
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (bucket / SUB_BUCKETS - 1);
+    }
+}
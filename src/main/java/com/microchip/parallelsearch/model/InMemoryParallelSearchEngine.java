@@ -1,71 +1,130 @@
 package com.microchip.parallelsearch.model;
 
 import com.microchip.parallelsearch.exception.SearchException;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * The InMemoryParallelSearchEngine class responsible for performing the in-memory parallel search.
- * This class utilizes a ForkJoinPool to divide the search operation into parallel tasks.
- * The search is performed on a list of combinations and matching results are stored in an observable list.
- * The class provides methods to get the list of found strings based on searched text and the status of the search operation.
+ * This class utilizes a long-lived SearchExecutor to divide the search operation into parallel tasks;
+ * the executor is reused by every search and is released when the engine is closed.
+ * The search is performed on a list of combinations; every task collects the ordinals of its matches in its own buffer,
+ * and the buffers are merged in corpus order into the SearchResult returned to the caller.
+ * The engine is plain Java and does not depend on JavaFX, so it can run headless or be embedded in other services.
+ * A search can also be streamed, publishing its matches in batches while the partitions of the scan complete.
  * It also allows setting the number of CPUs to be used for parallel processing.
+ * Queries are answered either from the precomputed SubstringIndex or by the parallel scan, selected by the SearchMode.
+ * Results are kept in a QueryResultCache; a query extending a cached one is answered by refining the cached result.
+ * Queries the index can answer are looked up in the index first, since a posting list is copied faster than a cached
+ * superset is refined; the cache serves the queries which would otherwise be scanned.
+ * Pattern queries with wildcards, anchors, character classes, alternatives or regular expressions are compiled
+ * by the QueryCompiler and always resolved by the parallel scan.
+ * Many queries can be searched at once, in which case all queries the index and the cache cannot answer
+ * share a single parallel pass over the combinations.
+ * Callers needing less than the full result can count the matches, which allocates no result at all and is computed
+ * analytically for combinatorial corpora, or search the first matches only, which stops scanning once they are found.
+ * The entries searched come from a Corpus: by default the packed CombinationStore of all 4-letter combinations,
+ * or any other corpus such as a CombinatorialCorpus of another alphabet and length, or a WordListCorpus loaded from a file.
+ * An engine can also be opened on a CorpusSnapshot, searching its memory-mapped corpus and index right away.
+ * Query latencies, result sizes, phase durations and fork/join activity are recorded in the SearchMetrics of the engine
+ * with lock-free counters; nothing is logged per partition, so the scan itself stays free of logging overhead.
  *
  * @author Ashish Kumar Mahuri
  */
-public class InMemoryParallelSearchEngine {
+public class InMemoryParallelSearchEngine implements AutoCloseable {
 
     private static final Logger logger = LogManager.getLogger(InMemoryParallelSearchEngine.class);
-    private ObservableList<String> foundStrings;
-    private ObservableList<String> searchResults; // Separate list for storing search results during a search
-    private StringProperty statusProperty;
+
+    // The number of entries a first-matches scan covers between two checks whether it can stop
+    private static final int FIRST_MATCHES_SLICE = 4096;
+    private final Corpus corpus;
     private int numCPUs; //number of available CPU
+    private volatile SearchMode searchMode;
+    private volatile SubstringIndex substringIndex; // set before index mode is selected and never cleared
+    private ExecutionMode executionMode;
+    private SearchExecutor searchExecutor;
+    private volatile PartitionPolicy partitionPolicy;
+    private volatile ScanBackend scanBackend = ScanBackend.SCALAR;
+    private volatile QueryResultCache resultCache;
+    private final SearchMetrics metrics = new SearchMetrics();
+    private long retiredStealCount; // steals of the executors replaced so far, guarded by the executor lock
+    // Scans hold the read lock, replacing the executor takes the write lock
+    private final ReadWriteLock executorLock = new ReentrantReadWriteLock();
 
 
     /**
-     * Constructs an instance of the InMemoryParallelSearchEngine.
-     * Initializes the observable lists for found strings and search results.
+     * Constructs an instance of the InMemoryParallelSearchEngine searching all 4-letter combinations.
      * Retrieves the number of available CPUs and logs the information.
+     * The engine starts in index mode, so the substring index is built up front,
+     * and starts a fork/join executor using all available CPUs.
      */
     public InMemoryParallelSearchEngine() {
-        foundStrings = FXCollections.observableArrayList();
-        searchResults = FXCollections.observableArrayList();
-        statusProperty = new SimpleStringProperty("Idle");
-        numCPUs = Runtime.getRuntime().availableProcessors();
-        logger.log(Level.INFO, "Number of available CPUs: {}", numCPUs);
+        this(Combinations.STORE, null, SearchMode.INDEX);
+    }
 
+    /**
+     * Constructs an instance of the InMemoryParallelSearchEngine searching the given corpus.
+     * The engine starts in index mode for the default corpus, whose index is shared, and in scan mode for any other corpus,
+     * so no substring index is built until index mode is selected.
+     *
+     * @param corpus The corpus to search.
+     * @throws IllegalArgumentException if the corpus is null.
+     */
+    public InMemoryParallelSearchEngine(Corpus corpus) {
+        this(corpus, null, isDefaultCorpus(corpus) ? SearchMode.INDEX : SearchMode.SCAN);
     }
 
     /**
-     * Gets the observable list of found strings.
+     * Constructs an instance of the InMemoryParallelSearchEngine searching the corpus of the given snapshot.
+     * The engine starts in index mode if the snapshot holds an index, which is then searched straight from the mapped file.
      *
-     * @return The observable list of found strings.
+     * @param snapshot The opened corpus snapshot.
+     * @throws IllegalArgumentException if the snapshot is null.
      */
-    public ObservableList<String> getFoundStrings() {
-        return foundStrings;
+    public InMemoryParallelSearchEngine(CorpusSnapshot snapshot) {
+        this(snapshot == null ? null : snapshot.getCorpus(), snapshot == null ? null : snapshot.getSubstringIndex(),
+                snapshot != null && snapshot.getSubstringIndex() != null ? SearchMode.INDEX : SearchMode.SCAN);
     }
 
     /**
-     * Gets the status property.
+     * Constructs an instance of the InMemoryParallelSearchEngine searching the given corpus in the given search mode.
      *
-     * @return The status property.
+     * @param corpus         The corpus to search.
+     * @param substringIndex The substring index of the corpus, or null to build it when index mode is selected.
+     * @param searchMode     The initial search mode.
      */
-    public StringProperty getStatusProperty() {
-        return statusProperty;
+    private InMemoryParallelSearchEngine(Corpus corpus, SubstringIndex substringIndex, SearchMode searchMode) {
+        if (corpus == null) {
+            throw new IllegalArgumentException("Corpus cannot be null");
+        }
+        this.corpus = corpus;
+        this.substringIndex = substringIndex;
+        numCPUs = Runtime.getRuntime().availableProcessors();
+        logger.log(Level.INFO, "Number of available CPUs: {}", numCPUs);
+        logger.log(Level.INFO, "Searching corpus: {}", corpus);
+        setSearchMode(searchMode);
+        executionMode = ExecutionMode.FORK_JOIN;
+        searchExecutor = new SearchExecutor(executionMode, numCPUs);
+        partitionPolicy = PartitionPolicy.defaultPolicy();
+        metrics.setStealCount(this::stealCount);
+        resultCache = new QueryResultCache(QueryResultCache.DEFAULT_MAX_ENTRIES, QueryResultCache.DEFAULT_MAX_ORDINALS);
     }
 
     /**
      * Sets the number of CPUs to use for the parallel search.
+     * If the number changes, the executor is replaced once the scans in progress have finished.
      *
      * @param numCPUs The number of CPUs to use.
      * @throws IllegalArgumentException if the number of CPUs is invalid.
@@ -76,111 +135,1119 @@ public class InMemoryParallelSearchEngine {
             if (numCPUs <= 0 || numCPUs > Runtime.getRuntime().availableProcessors()) {
                 throw new IllegalArgumentException("Invalid number of CPUs");
             }
-            this.numCPUs = numCPUs;
+            if (this.numCPUs != numCPUs) {
+                replaceExecutor(executionMode, numCPUs);
+            }
         } finally {
             logger.info("Exiting from: setNumCPUs()");
         }
     }
 
+    /**
+     * Gets the corpus searched by this engine.
+     *
+     * @return The corpus.
+     */
+    public Corpus getCorpus() {
+        return corpus;
+    }
+
+    /**
+     * Gets the substring index of the corpus.
+     *
+     * @return The substring index, or null if index mode has not been selected yet.
+     */
+    public SubstringIndex getSubstringIndex() {
+        return substringIndex;
+    }
+
+    /**
+     * Gets the metrics of this engine.
+     *
+     * @return The metrics, updated by every search.
+     */
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the search mode.
+     *
+     * @return The search mode used to resolve queries.
+     */
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    /**
+     * Sets the search mode.
+     * Switching to index mode builds the substring index of the corpus if it is not built yet;
+     * the index of the default corpus is shared by all engines.
+     *
+     * @param searchMode The search mode used to resolve queries.
+     * @throws IllegalArgumentException if the search mode is null or the corpus is too large to be indexed.
+     */
+    public void setSearchMode(SearchMode searchMode) {
+        logger.info("Entering into: setSearchMode()");
+        try {
+            if (searchMode == null) {
+                throw new IllegalArgumentException("Search mode cannot be null");
+            }
+            if (searchMode == SearchMode.INDEX && substringIndex == null) {
+                substringIndex = isDefaultCorpus(corpus) ? SubstringIndex.getInstance() : SubstringIndex.build(corpus);
+            }
+            this.searchMode = searchMode;
+            logger.log(Level.INFO, "Search mode set to: {}", searchMode);
+        } finally {
+            logger.info("Exiting from: setSearchMode()");
+        }
+    }
+
+    /**
+     * Gets the execution mode.
+     *
+     * @return The mode used to run the partitions of a scan.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the execution mode.
+     * If the mode changes, the executor is replaced once the scans in progress have finished.
+     *
+     * @param executionMode The mode used to run the partitions of a scan.
+     * @throws IllegalArgumentException if the execution mode is null.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        logger.info("Entering into: setExecutionMode()");
+        try {
+            if (executionMode == null) {
+                throw new IllegalArgumentException("Execution mode cannot be null");
+            }
+            if (this.executionMode != executionMode) {
+                replaceExecutor(executionMode, numCPUs);
+            }
+        } finally {
+            logger.info("Exiting from: setExecutionMode()");
+        }
+    }
+
+    /**
+     * Gets the partition policy.
+     *
+     * @return The policy deciding how finely a scan is partitioned.
+     */
+    public PartitionPolicy getPartitionPolicy() {
+        return partitionPolicy;
+    }
+
+    /**
+     * Sets the partition policy. The policy applies from the next scan on.
+     *
+     * @param partitionPolicy The policy deciding how finely a scan is partitioned.
+     * @throws IllegalArgumentException if the partition policy is null.
+     */
+    public void setPartitionPolicy(PartitionPolicy partitionPolicy) {
+        logger.info("Entering into: setPartitionPolicy()");
+        try {
+            if (partitionPolicy == null) {
+                throw new IllegalArgumentException("Partition policy cannot be null");
+            }
+            this.partitionPolicy = partitionPolicy;
+            logger.log(Level.INFO, "Partition policy set to: {}", partitionPolicy);
+        } finally {
+            logger.info("Exiting from: setPartitionPolicy()");
+        }
+    }
+
+    /**
+     * Gets the scan backend.
+     *
+     * @return The backend matching the ranges of a scan.
+     */
+    public ScanBackend getScanBackend() {
+        return scanBackend;
+    }
+
+    /**
+     * Sets the scan backend. The backend applies from the next scan on.
+     * If the vector backend is not available in the running JVM, the scalar backend is kept and a warning is logged.
+     *
+     * @param scanBackend The backend matching the ranges of a scan.
+     * @throws IllegalArgumentException if the scan backend is null.
+     */
+    public void setScanBackend(ScanBackend scanBackend) {
+        logger.info("Entering into: setScanBackend()");
+        try {
+            if (scanBackend == null) {
+                throw new IllegalArgumentException("Scan backend cannot be null");
+            }
+            if (!scanBackend.isAvailable()) {
+                logger.log(Level.WARN, "Scan backend {} is not available, falling back to {}", scanBackend, ScanBackend.SCALAR);
+                scanBackend = ScanBackend.SCALAR;
+            }
+            this.scanBackend = scanBackend;
+            logger.log(Level.INFO, "Scan backend set to: {}", scanBackend);
+        } finally {
+            logger.info("Exiting from: setScanBackend()");
+        }
+    }
+
+    /**
+     * Gets the number of combinations in a chunk of a scan with the current partition policy and number of CPUs.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return partitionPolicy.chunkSize(corpus.size(), numCPUs);
+    }
+
+    /**
+     * Gets the result cache, which also exposes the hit, refinement, miss and eviction counters.
+     *
+     * @return The result cache, or null if caching is disabled.
+     */
+    public QueryResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Sets the result cache.
+     *
+     * @param resultCache The result cache, or null to disable caching.
+     */
+    public void setResultCache(QueryResultCache resultCache) {
+        logger.info("Entering into: setResultCache()");
+        try {
+            this.resultCache = resultCache;
+            logger.log(Level.INFO, "Result cache set to: {}", resultCache);
+        } finally {
+            logger.info("Exiting from: setResultCache()");
+        }
+    }
+
+    /**
+     * Shuts down the executor of this engine and unregisters its metrics from JMX.
+     * The engine must not be used for searching afterwards.
+     */
+    @Override
+    public void close() {
+        logger.info("Entering into: close()");
+        executorLock.writeLock().lock();
+        try {
+            searchExecutor.close();
+            metrics.unregister();
+        } finally {
+            executorLock.writeLock().unlock();
+            logger.info("Exiting from: close()");
+        }
+    }
+
+    /**
+     * Replaces the executor with a new one for the given mode and number of CPUs.
+     * Waits for the scans in progress on the current executor before shutting it down.
+     *
+     * @param executionMode The mode used to run the partitions of a scan.
+     * @param numCPUs       The number of CPUs to use.
+     */
+    private void replaceExecutor(ExecutionMode executionMode, int numCPUs) {
+        executorLock.writeLock().lock();
+        try {
+            SearchExecutor previousExecutor = searchExecutor;
+            searchExecutor = new SearchExecutor(executionMode, numCPUs);
+            this.executionMode = executionMode;
+            this.numCPUs = numCPUs;
+            previousExecutor.close();
+            retiredStealCount += previousExecutor.getStealCount();
+        } finally {
+            executorLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a partition of a streaming search asynchronously on the current executor.
+     * A streaming search submits its partitions when its subscriber first requests items, which may be long after
+     * stream() returned, so the executor is only read when a partition is submitted, under the executor lock.
+     *
+     * @param partition The partition to run.
+     * @throws java.util.concurrent.RejectedExecutionException if the engine has been closed.
+     */
+    private void execute(Runnable partition) {
+        executorLock.readLock().lock();
+        try {
+            searchExecutor.execute(partition);
+        } finally {
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tasks stolen by the workers of all executors of this engine.
+     *
+     * @return The steal count.
+     */
+    private long stealCount() {
+        executorLock.readLock().lock();
+        try {
+            return retiredStealCount + searchExecutor.getStealCount();
+        } finally {
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the duration of a phase which started at the given time and ends now.
+     *
+     * @param phase The phase.
+     * @param since The System.nanoTime() at the start of the phase.
+     * @return The System.nanoTime() at the end of the phase.
+     */
+    private long endPhase(SearchPhase phase, long since) {
+        long now = System.nanoTime();
+        metrics.recordPhase(phase, now - since);
+        return now;
+    }
+
     /**
      * Performs the in-memory parallel search.
      *
      * @param searchText The search text to look for in the combinations.
+     * @return The result holding the matching combinations, their count and the execution time.
      * @throws SearchException if error occur during the search.
      */
-    public void search(String searchText) throws SearchException {
+    public SearchResult search(String searchText) throws SearchException {
+        try {
+            logger.debug("Entering into: search()");
+            validate(searchText);
+
+            logger.log(Level.DEBUG, "Search started for: {} in {} mode", searchText, searchMode);
+
+            long start = System.nanoTime();
+
+            QueryResultCache cache = resultCache;
+            String cacheKey = cacheKey(searchText);
+            boolean pattern = QueryCompiler.isPattern(searchText);
+            SearchMode resolvedMode = resolveMode(searchText, pattern);
+            int[] ordinals = null;
+            if (pattern) {
+                ordinals = scan(QueryCompiler.compile(searchText));
+            } else if (resolvedMode == SearchMode.SCAN && cache != null && cacheKey != null) {
+                long lookupStart = System.nanoTime();
+                ordinals = cachedOrdinals(cache, cacheKey, searchText);
+                endPhase(SearchPhase.LOOKUP, lookupStart);
+            }
+            if (ordinals == null) {
+                if (resolvedMode == SearchMode.INDEX) {
+                    // Resolve the search with a single index lookup
+                    long lookupStart = System.nanoTime();
+                    ordinals = substringIndex.lookup(searchText);
+                    endPhase(SearchPhase.LOOKUP, lookupStart);
+                } else {
+                    ordinals = scan(MatchKernel.compile(searchText));
+                }
+                if (cache != null && cacheKey != null) {
+                    cache.put(cacheKey, ordinals);
+                }
+            }
+
+            // Calculate the execution time for search
+            long executionNanos = System.nanoTime() - start;
+            metrics.recordQuery(executionNanos, ordinals.length);
+            Duration executionTime = Duration.ofNanos(executionNanos);
+
+            logger.log(Level.DEBUG, "Search completed for: {} with {} matches", searchText, ordinals.length);
+            return new SearchResult(corpus, searchText, resolvedMode, ordinals, executionTime);
+
+        } catch (Exception exception) {
+            throw searchFailure("search", exception);
+        } finally {
+            logger.debug("Exiting from: search()");
+        }
+    }
+
+    /**
+     * Performs the in-memory parallel search of many search texts at once.
+     * Literal search texts are answered by the index in index mode and otherwise by the cache; all remaining search texts
+     * are evaluated together by a MultiQueryMatcher in one parallel pass over the combinations, instead of one scan each.
+     *
+     * @param searchTexts The search texts to look for in the combinations.
+     * @return The results, in the order of the search texts; the execution time of each result is that of the whole batch.
+     * @throws SearchException if a search text is invalid or error occur during the search.
+     */
+    public List<SearchResult> searchAll(List<String> searchTexts) throws SearchException {
         try {
-            logger.info("Entering into: search()");
-            if (searchText == null || searchText.isEmpty() || searchText.length() > 4) {
-                throw new SearchException("Search text cannot be null or empty and max length should be 4");
+            logger.debug("Entering into: searchAll()");
+            if (searchTexts == null) {
+                throw new SearchException("Search texts cannot be null");
+            }
+            for (String searchText : searchTexts) {
+                validate(searchText);
             }
 
-            logger.log(Level.INFO, "Search started for: {}", searchText);
+            logger.log(Level.DEBUG, "Batch search started for: {} search texts in {} mode", searchTexts.size(), searchMode);
 
-            // Clear previous search results
-            searchResults.clear();
+            long start = System.nanoTime();
 
-            Instant start = Instant.now();
+            QueryResultCache cache = resultCache;
+            int[][] ordinals = new int[searchTexts.size()][];
+            List<String> scannedTexts = new ArrayList<>();
+            List<Integer> scannedQueries = new ArrayList<>();
+            for (int query = 0; query < searchTexts.size(); query++) {
+                String searchText = searchTexts.get(query);
+                String cacheKey = cacheKey(searchText);
+                if (!QueryCompiler.isPattern(searchText)) {
+                    if (resolveMode(searchText, false) == SearchMode.INDEX) {
+                        ordinals[query] = substringIndex.lookup(searchText);
+                        if (cache != null && cacheKey != null) {
+                            cache.put(cacheKey, ordinals[query]);
+                        }
+                    } else if (cache != null && cacheKey != null) {
+                        ordinals[query] = cachedOrdinals(cache, cacheKey, searchText);
+                    }
+                }
+                if (ordinals[query] == null) {
+                    scannedTexts.add(searchText);
+                    scannedQueries.add(query);
+                }
+            }
+            if (scannedTexts.size() < searchTexts.size()) {
+                endPhase(SearchPhase.LOOKUP, start);
+            }
+            if (!scannedTexts.isEmpty()) {
+                // Resolve every remaining search text in a single pass
+                int[][] scannedOrdinals = scanAll(new MultiQueryMatcher(corpus, scannedTexts));
+                for (int i = 0; i < scannedTexts.size(); i++) {
+                    String searchText = scannedTexts.get(i);
+                    String cacheKey = cacheKey(searchText);
+                    ordinals[scannedQueries.get(i)] = scannedOrdinals[i];
+                    if (cache != null && cacheKey != null) {
+                        cache.put(cacheKey, scannedOrdinals[i]);
+                    }
+                }
+            }
 
-            // Perform search in parallel
-            try (ForkJoinPool forkJoinPool = new ForkJoinPool(numCPUs)) {
-                SearchTask searchTask = new SearchTask(searchText, 0, Combinations.ALL_COMBINATIONS.size());
-                forkJoinPool.invoke(searchTask);
+            long executionNanos = System.nanoTime() - start;
+            Duration executionTime = Duration.ofNanos(executionNanos);
+
+            List<SearchResult> results = new ArrayList<>(searchTexts.size());
+            for (int query = 0; query < searchTexts.size(); query++) {
+                String searchText = searchTexts.get(query);
+                SearchMode resolvedMode = resolveMode(searchText, QueryCompiler.isPattern(searchText));
+                metrics.recordQuery(executionNanos, ordinals[query].length);
+                results.add(new SearchResult(corpus, searchText, resolvedMode, ordinals[query], executionTime));
             }
+            logger.log(Level.DEBUG, "Batch search completed for: {} search texts, {} of them in a single scan",
+                    searchTexts.size(), scannedTexts.size());
+            return results;
 
-            Instant end = Instant.now();
-            // Calculate the execution time for search
-            Duration executionTime = Duration.between(start, end);
-            String status = "Execution Time: " + executionTime.toMillis() + "ms";
-            statusProperty.set(status);
+        } catch (Exception exception) {
+            throw searchFailure("search", exception);
+        } finally {
+            logger.debug("Exiting from: searchAll()");
+        }
+    }
+
+    /**
+     * Counts the matches of a search without materializing them.
+     * On a combinatorial corpus, including the default one, the count is computed analytically from the compiled query,
+     * without looking at any entry. Otherwise, for literal search texts in index mode, it is the length of a posting list,
+     * or it comes from a cached result; any other search is counted by a parallel scan whose partitions only add up
+     * their matches.
+     *
+     * @param searchText The search text to look for in the combinations.
+     * @return The number of matching combinations.
+     * @throws SearchException if the search text is invalid or error occur during the count.
+     */
+    public int count(String searchText) throws SearchException {
+        try {
+            logger.debug("Entering into: count()");
+            validate(searchText);
+
+            long start = System.nanoTime();
+            CombinationMatcher matcher = QueryCompiler.compile(searchText);
+            int count = countAnalytically(matcher);
+            if (count < 0) {
+                QueryResultCache cache = resultCache;
+                String cacheKey = cacheKey(searchText);
+                boolean pattern = QueryCompiler.isPattern(searchText);
+                long lookupStart = System.nanoTime();
+                boolean indexed = resolveMode(searchText, pattern) == SearchMode.INDEX;
+                int[] cachedOrdinals = indexed || pattern || cache == null || cacheKey == null ? null : cachedOrdinals(cache, cacheKey, searchText);
+                if (indexed) {
+                    count = substringIndex.count(searchText);
+                    endPhase(SearchPhase.LOOKUP, lookupStart);
+                } else if (cachedOrdinals != null) {
+                    count = cachedOrdinals.length;
+                    endPhase(SearchPhase.LOOKUP, lookupStart);
+                } else {
+                    count = scanCount(matcher);
+                }
+            }
+
+            metrics.recordQuery(System.nanoTime() - start, count);
+            logger.log(Level.DEBUG, "Count completed for: {} with {} matches", searchText, count);
+            return count;
+
+        } catch (Exception exception) {
+            throw searchFailure("count", exception);
+        } finally {
+            logger.debug("Exiting from: count()");
+        }
+    }
+
+    /**
+     * Searches the first matches of a search in corpus order, which is sorted order for combinatorial corpora.
+     * A posting list or a cached result is only copied up to the limit. A scan is cut into chunks like a full search,
+     * but a chunk stops once it has found limit matches, and chunks after the first ones holding limit matches
+     * together are skipped, so a search for a few matches only scans the start of the corpus.
+     * Partial results are not cached.
+     *
+     * @param searchText The search text to look for in the combinations.
+     * @param limit      The maximum number of matches to return.
+     * @return The result holding at most limit matches, their count and the execution time; its total count is only
+     * known if the matches came from the cache or fewer than limit of them were found.
+     * @throws SearchException if the search text is invalid, the limit is negative or error occur during the search.
+     */
+    public SearchResult searchFirst(String searchText, int limit) throws SearchException {
+        try {
+            logger.debug("Entering into: searchFirst()");
+            return searchFirst(searchText, limit, false);
+        } finally {
+            logger.debug("Exiting from: searchFirst()");
+        }
+    }
 
-            // Add the search results to the foundStrings list after the search is complete
-            foundStrings.setAll(searchResults);
+    /**
+     * Counts the matches of a search and searches the first of them in corpus order, at the cost of a single search.
+     * The count comes from the same source as in count(): computed analytically, the length of a posting list or read
+     * from a cached result. Otherwise the corpus is scanned once: every chunk collects its first limit matches and only
+     * counts the rest, so no chunk is scanned twice and no more than limit matches per chunk are materialized.
+     *
+     * @param searchText The search text to look for in the combinations.
+     * @param limit      The maximum number of matches to return.
+     * @return The result holding at most limit matches, the total count of matches and the execution time.
+     * @throws SearchException if the search text is invalid, the limit is negative or error occur during the search.
+     */
+    public SearchResult countAndSearchFirst(String searchText, int limit) throws SearchException {
+        try {
+            logger.debug("Entering into: countAndSearchFirst()");
+            return searchFirst(searchText, limit, true);
+        } finally {
+            logger.debug("Exiting from: countAndSearchFirst()");
+        }
+    }
+
+    /**
+     * Searches the first matches of a search, and counts all of them if requested.
+     *
+     * @param searchText The search text to look for in the combinations.
+     * @param limit      The maximum number of matches to return.
+     * @param counted    Whether all matches are counted.
+     * @return The result holding at most limit matches.
+     * @throws SearchException if the search text is invalid, the limit is negative or error occur during the search.
+     */
+    private SearchResult searchFirst(String searchText, int limit, boolean counted) throws SearchException {
+        try {
+            validate(searchText);
+            if (limit < 0) {
+                throw new SearchException("Limit cannot be negative: " + limit);
+            }
 
-            // Save the found strings in different formats
-            StringDataWriter.saveStringsInJSON(foundStrings, "found_strings.json");
+            long start = System.nanoTime();
+            QueryResultCache cache = resultCache;
+            String cacheKey = cacheKey(searchText);
+            boolean pattern = QueryCompiler.isPattern(searchText);
+            SearchMode resolvedMode = resolveMode(searchText, pattern);
+            long lookupStart = System.nanoTime();
+            boolean indexed = resolvedMode == SearchMode.INDEX;
+            int[] ordinals = indexed || pattern || cache == null || cacheKey == null ? null : cachedOrdinals(cache, cacheKey, searchText);
+            int totalCount;
+            if (indexed) {
+                ordinals = substringIndex.lookup(searchText, limit);
+                totalCount = counted ? substringIndex.count(searchText) : -1;
+                endPhase(SearchPhase.LOOKUP, lookupStart);
+            } else if (ordinals != null) {
+                totalCount = ordinals.length;
+                ordinals = ordinals.length > limit ? Arrays.copyOf(ordinals, limit) : ordinals;
+                endPhase(SearchPhase.LOOKUP, lookupStart);
+            } else {
+                CombinationMatcher matcher = QueryCompiler.compile(searchText);
+                totalCount = counted ? countAnalytically(matcher) : -1;
+                FirstScan firstScan = scanFirst(matcher, limit, counted && totalCount < 0);
+                ordinals = firstScan.ordinals();
+                totalCount = counted && totalCount < 0 ? firstScan.count() : totalCount;
+            }
+            if (totalCount < 0 && ordinals.length < limit) {
+                totalCount = ordinals.length;
+            }
 
-            logger.log(Level.INFO, "Search completed for: {}", searchText);
+            long executionNanos = System.nanoTime() - start;
+            metrics.recordQuery(executionNanos, ordinals.length);
+            logger.log(Level.DEBUG, "Search completed for: {} with the first {} of {} matches", searchText, ordinals.length, totalCount);
+            return new SearchResult(corpus, searchText, resolvedMode, ordinals, totalCount, Duration.ofNanos(executionNanos));
 
-        } catch (IllegalArgumentException | SearchException searchException) {
-            logger.log(Level.ERROR, "Error occurred during search: {}", searchException.getMessage());
-            throw new SearchException("Error occurred during search", searchException);
         } catch (Exception exception) {
-            logger.log(Level.ERROR, "Generic Exception: {}", exception.getMessage());
-            throw new SearchException("An unexpected error occurred during search", exception);
+            throw searchFailure("search", exception);
+        }
+    }
+
+    /**
+     * Streams the matches of a search in batches, as the partitions of the search complete.
+     * The search starts when the subscriber first requests items and stops when the subscription is cancelled.
+     * Batches are delivered in corpus order and partitions are as small as the minimum chunk size of the partition
+     * policy, so the first batch arrives after scanning a single small chunk. A scan runs at most chunks per worker
+     * partitions per CPU ahead of the batches the subscriber has taken.
+     *
+     * @param searchText The search text to look for in the combinations.
+     * @return The publisher of the batches of matches, accepting a single subscriber.
+     * @throws SearchException if the search text is invalid or a malformed pattern.
+     */
+    public Flow.Publisher<ResultBatch> stream(String searchText) throws SearchException {
+        logger.debug("Entering into: stream()");
+        try {
+            validate(searchText);
+            logger.log(Level.DEBUG, "Streaming search started for: {} in {} mode", searchText, searchMode);
+
+            PartitionPolicy policy = partitionPolicy;
+            int batchSize = policy.getMinChunkSize();
+            QueryResultCache cache = resultCache;
+            String cacheKey = cacheKey(searchText);
+            boolean pattern = QueryCompiler.isPattern(searchText);
+            boolean indexed = resolveMode(searchText, pattern) == SearchMode.INDEX;
+            int[] cachedOrdinals = indexed || pattern || cache == null || cacheKey == null ? null : cachedOrdinals(cache, cacheKey, searchText);
+            if (indexed || cachedOrdinals != null) {
+                int[] ordinals = indexed ? substringIndex.lookup(searchText) : cachedOrdinals;
+                if (cachedOrdinals == null && cache != null && cacheKey != null) {
+                    cache.put(cacheKey, ordinals);
+                }
+                return new SearchPublisher(corpus, metrics, Runnable::run, partitionCount(ordinals.length, batchSize), 1,
+                        batch -> Arrays.copyOfRange(ordinals, batch * batchSize, Math.min(ordinals.length, (batch + 1) * batchSize)),
+                        null);
+            }
+            CombinationMatcher matcher = QueryCompiler.compile(searchText);
+            int size = matcher.matchesNothing() ? 0 : corpus.size();
+            // A scan which runs to completion fills the cache
+            RangeScan rangeScan = rangeScan(matcher);
+            // Keep every worker busy, but scan no further ahead of the subscriber
+            int window = numCPUs * policy.getChunksPerWorker();
+            return new SearchPublisher(corpus, metrics, this::execute, partitionCount(size, batchSize), window,
+                    chunk -> rangeScan.scan(chunk * batchSize, Math.min(size, (chunk + 1) * batchSize)).toArray(),
+                    pattern || cache == null || cacheKey == null ? null : ordinals -> cache.put(cacheKey, ordinals));
+        } catch (IllegalArgumentException illegalArgumentException) {
+            throw searchFailure("search", illegalArgumentException);
+        } finally {
+            logger.debug("Exiting from: stream()");
+        }
+    }
+
+    /**
+     * Checks whether the given corpus is the default one, without generating the default combinations
+     * when the corpus is of another kind.
+     *
+     * @param corpus The corpus.
+     * @return true if the corpus is Combinations.STORE.
+     */
+    private static boolean isDefaultCorpus(Corpus corpus) {
+        return corpus instanceof CombinationStore && corpus == Combinations.STORE;
+    }
+
+    /**
+     * Resolves the mode a search text is searched with. Searches in index mode never consult the cache;
+     * searches in scan mode are scanned unless they hit the cache.
+     * In index mode, a literal search text of at most SubstringIndex.MAX_KEY_LENGTH letters is looked up in the index;
+     * longer literals, literals with other characters and patterns are scanned like in scan mode.
+     *
+     * @param searchText The search text.
+     * @param pattern    Whether the search text is a pattern.
+     * @return INDEX if the search text is looked up in the index, otherwise SCAN.
+     */
+    private SearchMode resolveMode(String searchText, boolean pattern) {
+        return !pattern && searchMode == SearchMode.INDEX && SubstringIndex.key(searchText) >= 0 ? SearchMode.INDEX : SearchMode.SCAN;
+    }
+
+    /**
+     * Wraps an exception thrown during a search into the SearchException reported to the caller, and logs it.
+     * Invalid search texts and failed searches are reported as errors of the operation; anything else as unexpected.
+     *
+     * @param operation The operation which failed, such as search or count.
+     * @param exception The exception thrown during the operation.
+     * @return The exception to throw.
+     */
+    private static SearchException searchFailure(String operation, Exception exception) {
+        if (exception instanceof IllegalArgumentException || exception instanceof SearchException) {
+            logger.log(Level.ERROR, "Error occurred during {}: {}", operation, exception.getMessage());
+            return new SearchException("Error occurred during " + operation, exception);
+        }
+        logger.log(Level.ERROR, "Generic Exception: {}", exception.getMessage());
+        return new SearchException("An unexpected error occurred during " + operation, exception);
+    }
+
+    /**
+     * Validates the search text.
+     *
+     * @param searchText The search text to validate.
+     * @throws SearchException if the search text is null, empty or longer than the maximum query length.
+     */
+    private static void validate(String searchText) throws SearchException {
+        if (searchText == null || searchText.isEmpty() || searchText.length() > QueryCompiler.MAX_QUERY_LENGTH) {
+            throw new SearchException("Search text cannot be null or empty and max length should be " + QueryCompiler.MAX_QUERY_LENGTH);
+        }
+    }
+
+    /**
+     * Normalizes a search text into its result cache key.
+     *
+     * @param searchText The search text.
+     * @return The upper-case search text, or null if it contains a character that never occurs in an entry.
+     */
+    private static String cacheKey(String searchText) {
+        byte[] searchLetters = CombinationStore.encode(searchText);
+        return searchLetters == null ? null : new String(searchLetters, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Gets the result of a search text from the cache, refining the cached result of one of its substrings if needed.
+     * A refined result is cached in turn.
+     *
+     * @param cache      The result cache.
+     * @param cacheKey   The normalized search text.
+     * @param searchText The search text.
+     * @return The ascending ordinals of the matches, or null if neither the search text nor a substring is cached.
+     */
+    private int[] cachedOrdinals(QueryResultCache cache, String cacheKey, String searchText) {
+        int[] ordinals = cache.get(cacheKey);
+        if (ordinals != null) {
+            return ordinals;
+        }
+        int[] superset = cache.findSuperset(cacheKey);
+        if (superset == null) {
+            return null;
+        }
+        MatchKernel matchKernel = MatchKernel.compile(searchText);
+        OrdinalBuffer matches = new OrdinalBuffer();
+        for (int ordinal : superset) {
+            if (corpus.matches(matchKernel, ordinal)) {
+                matches.add(ordinal);
+            }
+        }
+        ordinals = matches.toArray();
+        cache.put(cacheKey, ordinals);
+        return ordinals;
+    }
+
+    /**
+     * Computes the number of partitions of the given size needed to cover a range.
+     *
+     * @param size          The size of the range.
+     * @param partitionSize The size of a partition.
+     * @return The number of partitions.
+     */
+    private static int partitionCount(int size, int partitionSize) {
+        return (int) (((long) size + partitionSize - 1) / partitionSize);
+    }
+
+    /**
+     * Scans all combinations in parallel with the given matcher.
+     * The chunk size comes from the partition policy. With the bisect strategy in fork/join mode the range is bisected
+     * by SearchTask, otherwise it is cut into flat chunks which are submitted at once and whose buffers are merged
+     * in chunk order; in virtual thread mode every chunk runs on its own virtual thread.
+     *
+     * @param matcher The compiled query.
+     * @return The ordinals of the matching combinations in ascending order.
+     * @throws Exception if a partition of the scan failed or the search was interrupted.
+     */
+    private int[] scan(CombinationMatcher matcher) throws Exception {
+        if (matcher.matchesNothing()) {
+            return new int[0];
+        }
+        int size = corpus.size();
+        PartitionPolicy policy = partitionPolicy;
+        RangeScan rangeScan = rangeScan(matcher);
+        // Perform search in parallel
+        executorLock.readLock().lock();
+        try {
+            long phaseStart = System.nanoTime();
+            int chunkSize = policy.chunkSize(size, searchExecutor.getParallelism());
+            if (searchExecutor.getExecutionMode() == ExecutionMode.FORK_JOIN && policy.getStrategy() == PartitionStrategy.BISECT) {
+                // Bisected tasks merge their halves while they join, so the merge phase only covers the final copy
+                SearchTask task = new SearchTask(rangeScan, metrics, 0, size, chunkSize);
+                phaseStart = endPhase(SearchPhase.PARTITION, phaseStart);
+                OrdinalBuffer matches = searchExecutor.invoke(task);
+                phaseStart = endPhase(SearchPhase.SCAN, phaseStart);
+                int[] ordinals = matches.toArray();
+                endPhase(SearchPhase.MERGE, phaseStart);
+                return ordinals;
+            }
+            List<OrdinalBuffer> chunkResults = invokeChunks(size, chunkSize, phaseStart, (chunk, from, to) -> rangeScan.scan(from, to));
+            phaseStart = System.nanoTime();
+            OrdinalBuffer matches = new OrdinalBuffer();
+            for (OrdinalBuffer chunkMatches : chunkResults) {
+                matches.addAll(chunkMatches);
+            }
+            int[] ordinals = matches.toArray();
+            endPhase(SearchPhase.MERGE, phaseStart);
+            return ordinals;
+        } finally {
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans all combinations in parallel once, with all queries of the given matcher.
+     * The combinations are cut into flat chunks of the chunk size of the partition policy, and the matches of the chunks
+     * are merged in chunk order.
+     *
+     * @param matcher The compiled queries.
+     * @return The ascending ordinals of the matches of each query, in query order.
+     * @throws Exception if a partition of the scan failed or the search was interrupted.
+     */
+    private int[][] scanAll(MultiQueryMatcher matcher) throws Exception {
+        if (matcher.matchesNothing()) {
+            return matcher.merge(List.of());
+        }
+        int size = corpus.size();
+        PartitionPolicy policy = partitionPolicy;
+        executorLock.readLock().lock();
+        try {
+            long phaseStart = System.nanoTime();
+            int chunkSize = policy.chunkSize(size, searchExecutor.getParallelism());
+            List<OrdinalBuffer[]> chunkResults = invokeChunks(size, chunkSize, phaseStart, (chunk, from, to) -> matcher.scanRange(from, to));
+            phaseStart = System.nanoTime();
+            int[][] ordinals = matcher.merge(chunkResults);
+            endPhase(SearchPhase.MERGE, phaseStart);
+            return ordinals;
+        } finally {
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuts the corpus into flat chunks and scans them in parallel on the current executor, recording the partition
+     * and scan phases of the search. The caller holds the read lock of the executor.
+     *
+     * @param size       The number of entries to scan, from the first one.
+     * @param chunkSize  The number of entries in a chunk.
+     * @param phaseStart The System.nanoTime() at the start of the partition phase.
+     * @param chunkScan  The scan of a chunk.
+     * @param <T>        The type of the result of a chunk.
+     * @return The results of the chunks, in chunk order.
+     * @throws Exception if a chunk failed or the search was interrupted.
+     */
+    private <T> List<T> invokeChunks(int size, int chunkSize, long phaseStart, ChunkScan<T> chunkScan) throws Exception {
+        List<Callable<T>> chunks = new ArrayList<>(partitionCount(size, chunkSize));
+        for (int chunk = 0, chunkStart = 0; chunkStart < size; chunk++, chunkStart += chunkSize) {
+            int index = chunk;
+            int from = chunkStart;
+            int to = Math.min(chunkStart + chunkSize, size);
+            chunks.add(() -> chunkScan.scan(index, from, to));
+        }
+        phaseStart = endPhase(SearchPhase.PARTITION, phaseStart);
+        List<T> results = searchExecutor.invokeAll(chunks);
+        endPhase(SearchPhase.SCAN, phaseStart);
+        return results;
+    }
+
+    /**
+     * Counts the matches of a compiled query on a combinatorial corpus without looking at any entry.
+     * The default corpus holds all combinations of Combinations.ALPHABET, so it is counted like a combinatorial corpus.
+     *
+     * @param matcher The compiled query.
+     * @return The number of matching entries, or -1 if the corpus is not combinatorial.
+     */
+    private int countAnalytically(CombinationMatcher matcher) {
+        byte[] alphabet;
+        int length;
+        if (corpus instanceof CombinatorialCorpus combinatorialCorpus) {
+            alphabet = CombinationStore.encode(combinatorialCorpus.getAlphabet());
+            length = combinatorialCorpus.getMaxLength();
+        } else if (isDefaultCorpus(corpus)) {
+            alphabet = CombinationStore.encode(Combinations.ALPHABET);
+            length = Combinations.COMBINATION_LENGTH;
+        } else {
+            return -1;
+        }
+        if (matcher instanceof MatchKernel matchKernel) {
+            return (int) matchKernel.countContaining(alphabet, length);
+        }
+        if (matcher instanceof PatternAutomaton patternAutomaton) {
+            return (int) patternAutomaton.countAccepted(alphabet, length);
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the matches of a compiled query with a parallel scan of flat chunks, which only add up their matches.
+     *
+     * @param matcher The compiled query.
+     * @return The number of matching entries.
+     * @throws Exception if a partition of the scan failed or the search was interrupted.
+     */
+    private int scanCount(CombinationMatcher matcher) throws Exception {
+        if (matcher.matchesNothing()) {
+            return 0;
+        }
+        int size = corpus.size();
+        PartitionPolicy policy = partitionPolicy;
+        RangeCount rangeCount = rangeCount(matcher);
+        executorLock.readLock().lock();
+        try {
+            long phaseStart = System.nanoTime();
+            int chunkSize = policy.chunkSize(size, searchExecutor.getParallelism());
+            List<Integer> chunkCounts = invokeChunks(size, chunkSize, phaseStart, (chunk, from, to) -> rangeCount.count(from, to));
+            phaseStart = System.nanoTime();
+            int count = 0;
+            for (int chunkCount : chunkCounts) {
+                count += chunkCount;
+            }
+            endPhase(SearchPhase.MERGE, phaseStart);
+            return count;
         } finally {
-            logger.info("Exiting from: search()");
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the first matches of a compiled query with a parallel scan of flat chunks that stops early.
+     * Every chunk scans its range in slices, and stops collecting once it has found limit matches or once the chunks
+     * before it are known to hold limit matches together. Unless all matches are counted, it stops scanning there too;
+     * otherwise it only counts the matches in the rest of its range.
+     *
+     * @param matcher The compiled query.
+     * @param limit   The maximum number of matches to return.
+     * @param counted Whether all matches are counted.
+     * @return The smallest ascending ordinals of the matching entries, at most limit of them, and the number of matches
+     * the scan found, which are all matches if they were counted.
+     * @throws Exception if a partition of the scan failed or the search was interrupted.
+     */
+    private FirstScan scanFirst(CombinationMatcher matcher, int limit, boolean counted) throws Exception {
+        int size = matcher.matchesNothing() || (limit == 0 && !counted) ? 0 : corpus.size();
+        PartitionPolicy policy = partitionPolicy;
+        RangeScan rangeScan = rangeScan(matcher);
+        RangeCount rangeCount = rangeCount(matcher);
+        executorLock.readLock().lock();
+        try {
+            long phaseStart = System.nanoTime();
+            int chunkSize = policy.chunkSize(size, searchExecutor.getParallelism());
+            FirstMatches firstMatches = new FirstMatches(partitionCount(size, chunkSize), limit);
+            List<Integer> chunkCounts = invokeChunks(size, chunkSize, phaseStart, (chunk, from, to) -> {
+                OrdinalBuffer matches = new OrdinalBuffer();
+                int slice = from;
+                for (; slice < to && matches.size() < limit && firstMatches.isNeeded(chunk); slice += FIRST_MATCHES_SLICE) {
+                    matches.addAll(rangeScan.scan(slice, Math.min(to, slice + FIRST_MATCHES_SLICE)));
+                }
+                firstMatches.complete(chunk, matches);
+                return counted && slice < to ? matches.size() + rangeCount.count(slice, to) : matches.size();
+            });
+            phaseStart = System.nanoTime();
+            int count = 0;
+            for (int chunkCount : chunkCounts) {
+                count += chunkCount;
+            }
+            int[] ordinals = firstMatches.toArray();
+            endPhase(SearchPhase.MERGE, phaseStart);
+            return new FirstScan(ordinals, count);
+        } finally {
+            executorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the count of the matches in the ranges of the corpus with the given matcher on the current scan backend.
+     *
+     * @param matcher The compiled query.
+     * @return The count of a range.
+     */
+    private RangeCount rangeCount(CombinationMatcher matcher) {
+        if (scanBackend == ScanBackend.VECTOR && VectorScanner.supports(corpus, matcher)) {
+            CombinationStore store = (CombinationStore) corpus;
+            MatchKernel kernel = (MatchKernel) matcher;
+            return (start, end) -> VectorScanner.countRange(store, kernel, start, end);
+        }
+        return (start, end) -> corpus.countRange(matcher, start, end);
+    }
+
+    /**
+     * Gets the scan of the ranges of the corpus with the given matcher on the current scan backend.
+     * The vector backend only scans what it supports; anything else is scanned by the scalar backend.
+     *
+     * @param matcher The compiled query.
+     * @return The scan of a range.
+     */
+    private RangeScan rangeScan(CombinationMatcher matcher) {
+        if (scanBackend == ScanBackend.VECTOR && VectorScanner.supports(corpus, matcher)) {
+            CombinationStore store = (CombinationStore) corpus;
+            MatchKernel kernel = (MatchKernel) matcher;
+            return (start, end) -> {
+                OrdinalBuffer matches = new OrdinalBuffer();
+                VectorScanner.scanRange(store, kernel, start, end, matches);
+                return matches;
+            };
+        }
+        return (start, end) -> scanRange(corpus, matcher, start, end);
+    }
+
+    /**
+     * Scans a range of entries sequentially with the given matcher.
+     *
+     * @param corpus  The corpus to scan.
+     * @param matcher The compiled query.
+     * @param start   The first ordinal of the range.
+     * @param end     The ordinal after the last one of the range.
+     * @return The ordinals of the matching entries in ascending order.
+     */
+    private static OrdinalBuffer scanRange(Corpus corpus, CombinationMatcher matcher, int start, int end) {
+        OrdinalBuffer matches = new OrdinalBuffer();
+        corpus.scanRange(matcher, start, end, matches);
+        return matches;
+    }
+
+    /**
+     * The RangeScan interface scans a range of the corpus with a compiled query on a scan backend.
+     */
+    @FunctionalInterface
+    private interface RangeScan {
+
+        /**
+         * Scans a range of entries.
+         *
+         * @param start The first ordinal of the range.
+         * @param end   The ordinal after the last one of the range.
+         * @return The ordinals of the matching entries in ascending order.
+         */
+        OrdinalBuffer scan(int start, int end);
+    }
+
+    /**
+     * The RangeCount interface counts the matches in a range of the corpus with a compiled query on a scan backend.
+     */
+    @FunctionalInterface
+    private interface RangeCount {
+
+        /**
+         * Counts the matching entries of a range.
+         *
+         * @param start The first ordinal of the range.
+         * @param end   The ordinal after the last one of the range.
+         * @return The number of matching entries.
+         */
+        int count(int start, int end);
+    }
+
+    /**
+     * The outcome of a first-matches scan: the first matches and the number of matches the scan found.
+     */
+    private record FirstScan(int[] ordinals, int count) {
+    }
+
+    /**
+     * The ChunkScan interface scans one chunk of a parallel scan of flat chunks.
+     *
+     * @param <T> The type of the result of a chunk.
+     */
+    @FunctionalInterface
+    private interface ChunkScan<T> {
+
+        /**
+         * Scans a chunk.
+         *
+         * @param chunk The index of the chunk.
+         * @param start The first ordinal of the chunk.
+         * @param end   The ordinal after the last one of the chunk.
+         * @return The result of the chunk.
+         */
+        T scan(int chunk, int start, int end);
+    }
+
+    /**
+     * The FirstMatches class collects the matches of the chunks of a first-matches scan.
+     * Completed chunks are added up in chunk order; once the chunks up to one of them hold limit matches together,
+     * the chunks after it are no longer needed, and chunks still running or not yet started stop or skip their scan.
+     */
+    private static final class FirstMatches {
+
+        private final OrdinalBuffer[] chunkMatches;
+        private final int limit;
+        private volatile int lastNeededChunk = Integer.MAX_VALUE;
+        private int completedChunks; // the chunks completed without a gap from the first one, guarded by this
+        private int completedMatches; // the matches of those chunks, guarded by this
+
+        FirstMatches(int chunkCount, int limit) {
+            this.chunkMatches = new OrdinalBuffer[chunkCount];
+            this.limit = limit;
+        }
+
+        boolean isNeeded(int chunk) {
+            return chunk <= lastNeededChunk;
+        }
+
+        synchronized void complete(int chunk, OrdinalBuffer matches) {
+            chunkMatches[chunk] = matches;
+            while (completedChunks < chunkMatches.length && chunkMatches[completedChunks] != null && completedMatches < limit) {
+                completedMatches += chunkMatches[completedChunks++].size();
+                if (completedMatches >= limit) {
+                    lastNeededChunk = completedChunks - 1;
+                }
+            }
+        }
+
+        synchronized int[] toArray() {
+            OrdinalBuffer matches = new OrdinalBuffer();
+            for (int chunk = 0; chunk < chunkMatches.length && chunk <= lastNeededChunk && matches.size() < limit; chunk++) {
+                matches.addAll(chunkMatches[chunk]);
+            }
+            int[] ordinals = matches.toArray();
+            return ordinals.length > limit ? Arrays.copyOf(ordinals, limit) : ordinals;
         }
     }
 
     /**
-     * The SearchTask class represents a recursive action that performs the parallel search.
+     * The SearchTask class represents a recursive task that performs the parallel search.
      * It divides the search operation into smaller tasks and utilizes the ForkJoin framework for parallel execution.
+     * Matching runs the compiled query directly on the bytes of the entries of the Corpus, through a RangeScan
+     * of the selected scan backend; only matches are decoded into Strings.
+     * Each leaf collects its matches into its own OrdinalBuffer, and a split task appends the buffer of its upper half
+     * to the buffer of its lower half, so the joined result is ordered by corpus position without any locking.
+     * Tasks do not log: forking a subtask only increments a counter of the SearchMetrics.
      */
-    private class SearchTask extends RecursiveAction {
+    private static class SearchTask extends RecursiveTask<OrdinalBuffer> {
 
-        private static final int THRESHOLD = 10000;
-        private String searchText;
+        private RangeScan rangeScan;
+        private SearchMetrics metrics;
         private int start;
         private int end;
+        private int threshold;
 
         /**
          * Instantiates a new Search task.
          *
-         * @param searchText the search text
-         * @param start      the start
-         * @param end        the end
+         * @param rangeScan the scan of a range with the compiled query
+         * @param metrics   the metrics counting forked tasks
+         * @param start     the start
+         * @param end       the end
+         * @param threshold the size up to which a range is scanned without splitting it
          */
-        public SearchTask(String searchText, int start, int end) {
-            this.searchText = searchText;
+        public SearchTask(RangeScan rangeScan, SearchMetrics metrics, int start, int end, int threshold) {
+            this.rangeScan = rangeScan;
+            this.metrics = metrics;
             this.start = start;
             this.end = end;
+            this.threshold = threshold;
         }
 
         @Override
-        protected void compute() {
-            try {
-                logger.info("Entering into: compute()");
-                if (end - start <= THRESHOLD) {
-                    for (int i = start; i < end; i++) {
-                        String combination = Combinations.ALL_COMBINATIONS.get(i);
-                        if (combination.toLowerCase().contains(searchText.toLowerCase())) {
-                            // Add the matching combination to the searchResults list
-                            searchResults.add(combination);
-                        }
-                    }
-                } else {
-                    int mid = (start + end) / 2;
-                    invokeAll(
-                            new SearchTask(searchText, start, mid),
-                            new SearchTask(searchText, mid, end)
-                    );
-                }
-            } catch (Exception exception) {
-                logger.log(Level.ERROR, "Error occurred while computing the search data: {}", exception.getMessage());
-                } finally {
-                logger.info("Exiting from: compute()");
+        protected OrdinalBuffer compute() {
+            if (end - start <= threshold) {
+                return rangeScan.scan(start, end);
             }
+            int mid = (start + end) / 2;
+            SearchTask lower = new SearchTask(rangeScan, metrics, start, mid, threshold);
+            SearchTask upper = new SearchTask(rangeScan, metrics, mid, end, threshold);
+            upper.fork();
+            metrics.taskForked();
+            OrdinalBuffer matches = lower.compute();
+            matches.addAll(upper.join());
+            return matches;
         }
     }
 }
@@ -0,0 +1,148 @@
+package com.microchip.parallelsearch.model;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The MappedCorpus class is a corpus whose packed entries stay in a memory-mapped CorpusSnapshot file.
+ * Entries are laid out like in the CombinationStore, back to back at a fixed length, or like in the WordListCorpus,
+ * with a mapped array of offsets marking where each entry starts. Nothing is read into the heap when the corpus is opened;
+ * the operating system pages the file in as it is scanned, and pages of the file shared by several processes
+ * are held in memory only once.
+ * Matchers work on byte arrays, so a scan copies the mapped bytes through a small block, one block of whole entries at a time.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class MappedCorpus extends Corpus {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final ByteBuffer letters;
+    private final IntBuffer offsets; // entry i occupies letters[offsets[i] .. offsets[i + 1]], or null for fixed-length entries
+    private final int entryLength;   // the length of every entry if the entries have a fixed length
+    private final int size;
+    private final int maxLength;
+
+    /**
+     * Constructs a corpus of fixed-length entries.
+     *
+     * @param letters     The mapped letters of all entries, back to back.
+     * @param entryLength The number of letters in each entry.
+     * @throws IllegalArgumentException if the letters do not hold a whole number of entries.
+     */
+    MappedCorpus(ByteBuffer letters, int entryLength) {
+        if (entryLength <= 0 || letters.capacity() % entryLength != 0) {
+            throw new IllegalArgumentException("Invalid entry length: " + entryLength);
+        }
+        this.letters = letters;
+        this.offsets = null;
+        this.entryLength = entryLength;
+        this.size = letters.capacity() / entryLength;
+        this.maxLength = entryLength;
+    }
+
+    /**
+     * Constructs a corpus of entries of different lengths.
+     *
+     * @param letters   The mapped letters of all entries, back to back.
+     * @param offsets   The mapped offset of every entry, followed by the total number of letters.
+     * @param maxLength The length of the longest entry.
+     * @throws IllegalArgumentException if the offsets do not fit the letters.
+     */
+    MappedCorpus(ByteBuffer letters, IntBuffer offsets, int maxLength) {
+        if (offsets.capacity() == 0 || offsets.get(0) != 0 || offsets.get(offsets.capacity() - 1) != letters.capacity()) {
+            throw new IllegalArgumentException("Invalid entry offsets");
+        }
+        this.letters = letters;
+        this.offsets = offsets;
+        this.entryLength = 0;
+        this.size = offsets.capacity() - 1;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public boolean hasFixedLength() {
+        return offsets == null;
+    }
+
+    @Override
+    public String get(int ordinal) {
+        byte[] entry = new byte[maxLength];
+        int length = getBytes(ordinal, entry);
+        return new String(entry, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    int getBytes(int ordinal, byte[] target) {
+        int offset = offset(ordinal);
+        int length = offset(ordinal + 1) - offset;
+        letters.get(offset, target, 0, length);
+        return length;
+    }
+
+    @Override
+    void scanRange(CombinationMatcher matcher, int start, int end, OrdinalBuffer matches) {
+        forEach(start, end, (ordinal, block, offset, length) -> {
+            if (matcher.matches(block, offset, length)) {
+                matches.add(ordinal);
+            }
+        });
+    }
+
+    @Override
+    boolean matches(CombinationMatcher matcher, int ordinal) {
+        byte[] entry = new byte[maxLength];
+        int length = getBytes(ordinal, entry);
+        return matcher.matches(entry, 0, length);
+    }
+
+    @Override
+    void forEach(int start, int end, EntryVisitor visitor) {
+        byte[] block = new byte[Math.max(BLOCK_SIZE, maxLength)];
+        int ordinal = start;
+        while (ordinal < end) {
+            // Copy as many whole entries as fit into the block, then visit them there
+            int blockStart = offset(ordinal);
+            int blockEnd = ordinal + 1;
+            if (offsets == null) {
+                blockEnd = Math.min(end, ordinal + block.length / entryLength);
+            } else {
+                while (blockEnd < end && offsets.get(blockEnd + 1) - blockStart <= block.length) {
+                    blockEnd++;
+                }
+            }
+            letters.get(blockStart, block, 0, offset(blockEnd) - blockStart);
+            for (int offset = 0; ordinal < blockEnd; ordinal++) {
+                int next = offset(ordinal + 1) - blockStart;
+                visitor.visit(ordinal, block, offset, next - offset);
+                offset = next;
+            }
+        }
+    }
+
+    /**
+     * Gets the offset of the entry with the given ordinal.
+     *
+     * @param ordinal The ordinal of the entry, or size() for the end of the last entry.
+     * @return The offset of the first letter of the entry in the mapped letters.
+     */
+    private int offset(int ordinal) {
+        return offsets == null ? ordinal * entryLength : offsets.get(ordinal);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedCorpus[size=" + size + ", maxLength=" + maxLength + ", fixedLength=" + hasFixedLength() + "]";
+    }
+}
@@ -0,0 +1,201 @@
+package com.microchip.parallelsearch.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * The MatchKernel class is the compiled form of a search text, matched against packed combinations.
+ * The search text is normalized to upper case once, when the kernel is compiled, so matching a combination
+ * neither allocates nor folds case. Combinations of 4 letters are read as a single int and the search text is
+ * compared against every window of the int with a shift and a mask; other lengths fall back to a byte loop.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class MatchKernel implements CombinationMatcher {
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final int WORD_LENGTH = Integer.BYTES;
+    private static final int LOW_BITS = 0x01010101;
+    private static final int HIGH_BITS = 0x80808080;
+
+    private static final MatchKernel NO_MATCH = new MatchKernel(null);
+
+    private final byte[] searchLetters;
+    private final int pattern; // the search letters packed big-endian into the low bytes of an int
+    private final int mask;    // selects the low searchLetters.length bytes of an int
+    private final int windows; // the number of windows of the search text length in a 4 letter combination
+
+    private MatchKernel(byte[] searchLetters) {
+        this.searchLetters = searchLetters;
+        int packed = 0;
+        int length = searchLetters == null ? 0 : searchLetters.length;
+        for (int i = 0; i < length; i++) {
+            packed = packed << Byte.SIZE | searchLetters[i];
+        }
+        this.pattern = length == 1 ? packed * LOW_BITS : packed;
+        this.mask = length >= WORD_LENGTH ? -1 : (1 << length * Byte.SIZE) - 1;
+        this.windows = WORD_LENGTH - length + 1;
+    }
+
+    /**
+     * Compiles the given search text into a match kernel.
+     * A search text containing a character that never occurs in a combination compiles into a kernel matching nothing.
+     *
+     * @param searchText The search text, matched case-insensitively.
+     * @return The compiled match kernel.
+     */
+    public static MatchKernel compile(String searchText) {
+        byte[] searchLetters = CombinationStore.encode(searchText);
+        return searchLetters == null || searchLetters.length == 0 ? NO_MATCH : new MatchKernel(searchLetters);
+    }
+
+    /**
+     * Checks whether this kernel can match any combination at all.
+     *
+     * @return true if the search text cannot occur in any combination.
+     */
+    @Override
+    public boolean matchesNothing() {
+        return searchLetters == null;
+    }
+
+    /**
+     * Gets the number of letters of the search text.
+     *
+     * @return The search text length, or 0 if this kernel matches nothing.
+     */
+    int length() {
+        return searchLetters == null ? 0 : searchLetters.length;
+    }
+
+    /**
+     * Gets a letter of the search text, normalized to upper case.
+     *
+     * @param index The index of the letter.
+     * @return The letter as an ASCII byte.
+     */
+    byte letter(int index) {
+        return searchLetters[index];
+    }
+
+    /**
+     * Counts the strings of the given length over the given alphabet which contain the search text, without enumerating them.
+     * The count runs the Knuth-Morris-Pratt automaton of the search text over all strings at once: it tracks
+     * how many strings end in each state, the length of the longest prefix of the search text they end with,
+     * and extends all of them by every letter of the alphabet; strings which have matched stay matched.
+     *
+     * @param alphabet The distinct upper-case letters of the alphabet.
+     * @param length   The length of the strings.
+     * @return The number of strings containing the search text.
+     */
+    long countContaining(byte[] alphabet, int length) {
+        if (searchLetters == null || searchLetters.length > length) {
+            return 0;
+        }
+        int matched = searchLetters.length;
+        // The length of the longest proper prefix of the search text which is also a suffix of its first i + 1 letters
+        int[] failure = new int[matched];
+        for (int i = 1, prefix = 0; i < matched; i++) {
+            while (prefix > 0 && searchLetters[i] != searchLetters[prefix]) {
+                prefix = failure[prefix - 1];
+            }
+            if (searchLetters[i] == searchLetters[prefix]) {
+                prefix++;
+            }
+            failure[i] = prefix;
+        }
+        int[][] next = new int[matched][alphabet.length];
+        for (int state = 0; state < matched; state++) {
+            for (int letter = 0; letter < alphabet.length; letter++) {
+                int prefix = state;
+                while (prefix > 0 && alphabet[letter] != searchLetters[prefix]) {
+                    prefix = failure[prefix - 1];
+                }
+                next[state][letter] = alphabet[letter] == searchLetters[prefix] ? prefix + 1 : 0;
+            }
+        }
+        long[] counts = new long[matched + 1];
+        counts[0] = 1;
+        for (int position = 0; position < length; position++) {
+            long[] extended = new long[matched + 1];
+            extended[matched] = counts[matched] * alphabet.length;
+            for (int state = 0; state < matched; state++) {
+                if (counts[state] != 0) {
+                    for (int letter = 0; letter < alphabet.length; letter++) {
+                        extended[next[state][letter]] += counts[state];
+                    }
+                }
+            }
+            counts = extended;
+        }
+        return counts[matched];
+    }
+
+    /**
+     * Checks whether the combination at the given offset contains the search text.
+     *
+     * @param letters The packed letters of all combinations.
+     * @param offset  The offset of the combination.
+     * @param length  The number of letters in the combination.
+     * @return true if the combination contains the search text.
+     */
+    @Override
+    public boolean matches(byte[] letters, int offset, int length) {
+        if (searchLetters == null) {
+            return false;
+        }
+        if (length == WORD_LENGTH) {
+            return matchesWord((int) INT_VIEW.get(letters, offset));
+        }
+        return matchesBytes(letters, offset, length);
+    }
+
+    /**
+     * Checks whether a 4 letter combination, packed big-endian into an int, contains the search text.
+     *
+     * @param word The packed combination.
+     * @return true if the combination contains the search text.
+     */
+    boolean matchesWord(int word) {
+        switch (windows) {
+            case 4:
+                // Single letter: find a zero byte in the word xor the letter repeated in every byte
+                int difference = word ^ pattern;
+                return ((difference - LOW_BITS) & ~difference & HIGH_BITS) != 0;
+            case 3:
+                return ((word >>> 16) & mask) == pattern
+                        || ((word >>> 8) & mask) == pattern
+                        || (word & mask) == pattern;
+            case 2:
+                return (word >>> 8) == pattern || (word & mask) == pattern;
+            case 1:
+                return word == pattern;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether a combination of any length contains the search text, comparing byte by byte.
+     *
+     * @param letters The packed letters of all combinations.
+     * @param offset  The offset of the combination.
+     * @param length  The number of letters in the combination.
+     * @return true if the combination contains the search text.
+     */
+    private boolean matchesBytes(byte[] letters, int offset, int length) {
+        int last = length - searchLetters.length;
+        for (int from = 0; from <= last; from++) {
+            int matched = 0;
+            while (matched < searchLetters.length && letters[offset + from + matched] == searchLetters[matched]) {
+                matched++;
+            }
+            if (matched == searchLetters.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MetricsReporter class dumps the SearchMetrics of a search engine to the log at a fixed interval,
+ * on a daemon thread of its own, until it is closed.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class MetricsReporter implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MetricsReporter.class);
+
+    private final SearchMetrics metrics;
+    private final ScheduledExecutorService reporterThread;
+
+    /**
+     * Constructs a reporter and starts dumping the metrics.
+     *
+     * @param metrics  The metrics to dump.
+     * @param interval The time between two dumps.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public MetricsReporter(SearchMetrics metrics, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Metrics interval must be positive: " + interval);
+        }
+        this.metrics = metrics;
+        this.reporterThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = interval.toNanos();
+        reporterThread.scheduleAtFixedRate(this::report, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Dumps the metrics to the log.
+     */
+    public void report() {
+        logger.log(Level.INFO, "{}", metrics);
+    }
+
+    /**
+     * Stops dumping the metrics, after a last dump.
+     */
+    @Override
+    public void close() {
+        reporterThread.shutdownNow();
+        report();
+    }
+}
@@ -0,0 +1,160 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MultiQueryMatcher class evaluates many queries in a single pass over a corpus.
+ * Literal queries of 1-4 letters are grouped by their substring key: every entry is split into its substring
+ * keys once, and each key selects the query group it answers by a binary search of the sorted keys of the batch,
+ * so the cost of an entry grows only logarithmically with the number of literal queries; substrings of a length
+ * no query has are skipped.
+ * Pattern queries and longer literals are tested one by one with their compiled CombinationMatcher.
+ * Identical queries share a single slot and therefore a single result.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class MultiQueryMatcher {
+
+    private static final int NO_SLOT = -1;
+
+    private final Corpus corpus;
+    private final int[] querySlots;      // the slot answering each query, or NO_SLOT if the query cannot match
+    private final int[] slotKeys;        // the distinct substring keys of the literal queries in ascending order, slot i has key i
+    private final int keySlotCount;      // slots 0 .. keySlotCount - 1 are answered by substring keys
+    private final int keyLengths;        // the lengths of the literal queries, bit l set for length l
+    private final CombinationMatcher[] matchers; // the matcher of slot keySlotCount + i
+
+    /**
+     * Compiles the given queries.
+     *
+     * @param corpus  The corpus to scan.
+     * @param queries The queries to evaluate together.
+     * @throws IllegalArgumentException if a query is a malformed or too complex pattern.
+     */
+    MultiQueryMatcher(Corpus corpus, List<String> queries) {
+        this.corpus = corpus;
+        querySlots = new int[queries.size()];
+        int[] queryKeys = new int[queries.size()];
+        int lengths = 0;
+        for (int query = 0; query < queries.size(); query++) {
+            String text = queries.get(query);
+            queryKeys[query] = QueryCompiler.isPattern(text) ? -1 : SubstringIndex.key(text);
+            if (queryKeys[query] >= 0) {
+                lengths |= 1 << text.length();
+            }
+        }
+        slotKeys = Arrays.stream(queryKeys).filter(key -> key >= 0).sorted().distinct().toArray();
+        Map<String, Integer> matcherSlots = new HashMap<>();
+        List<CombinationMatcher> matcherList = new ArrayList<>();
+        List<Integer> matcherQueries = new ArrayList<>();
+        for (int query = 0; query < queries.size(); query++) {
+            String text = queries.get(query);
+            if (queryKeys[query] >= 0) {
+                querySlots[query] = Arrays.binarySearch(slotKeys, queryKeys[query]);
+                continue;
+            }
+            Integer matcherSlot = matcherSlots.get(text);
+            if (matcherSlot == null) {
+                CombinationMatcher matcher = QueryCompiler.compile(text);
+                matcherSlot = matcher.matchesNothing() ? NO_SLOT : matcherList.size();
+                if (!matcher.matchesNothing()) {
+                    matcherList.add(matcher);
+                }
+                matcherSlots.put(text, matcherSlot);
+            }
+            // Matcher slots are numbered after the key slots once all queries are known
+            querySlots[query] = matcherSlot;
+            matcherQueries.add(query);
+        }
+        keySlotCount = slotKeys.length;
+        keyLengths = lengths;
+        for (int query : matcherQueries) {
+            if (querySlots[query] != NO_SLOT) {
+                querySlots[query] += keySlotCount;
+            }
+        }
+        matchers = matcherList.toArray(new CombinationMatcher[0]);
+    }
+
+    /**
+     * Gets the number of slots, that is of distinct queries which can match.
+     *
+     * @return The number of slots.
+     */
+    int getSlotCount() {
+        return keySlotCount + matchers.length;
+    }
+
+    /**
+     * Checks whether no query can match any combination.
+     *
+     * @return true if the pass can be skipped.
+     */
+    boolean matchesNothing() {
+        return getSlotCount() == 0;
+    }
+
+    /**
+     * Scans a range of entries sequentially with all queries.
+     *
+     * @param start The first ordinal of the range.
+     * @param end   The ordinal after the last one of the range.
+     * @return The ascending ordinals of the matches of each slot in the range.
+     */
+    OrdinalBuffer[] scanRange(int start, int end) {
+        OrdinalBuffer[] matches = new OrdinalBuffer[getSlotCount()];
+        for (int slot = 0; slot < matches.length; slot++) {
+            matches[slot] = new OrdinalBuffer();
+        }
+        int[] lastOrdinal = new int[keySlotCount];
+        Arrays.fill(lastOrdinal, -1);
+        int[] keys = new int[SubstringIndex.maxKeys(corpus.getMaxLength())];
+        corpus.forEach(start, end, (ordinal, letters, offset, length) -> {
+            if (keySlotCount > 0) {
+                int keyCount = SubstringIndex.substringKeys(letters, offset, length, keys, keyLengths);
+                for (int k = 0; k < keyCount; k++) {
+                    int slot = Arrays.binarySearch(slotKeys, keys[k]);
+                    // A substring occurring several times in one entry adds its ordinal only once
+                    if (slot >= 0 && lastOrdinal[slot] != ordinal) {
+                        lastOrdinal[slot] = ordinal;
+                        matches[slot].add(ordinal);
+                    }
+                }
+            }
+            for (int m = 0; m < matchers.length; m++) {
+                if (matchers[m].matches(letters, offset, length)) {
+                    matches[keySlotCount + m].add(ordinal);
+                }
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Merges the matches of consecutive ranges into the result of every query.
+     *
+     * @param rangeMatches The matches of each range, in range order.
+     * @return The ascending ordinals of the matches of each query, in query order.
+     */
+    int[][] merge(List<OrdinalBuffer[]> rangeMatches) {
+        int[][] slotOrdinals = new int[getSlotCount()][];
+        for (int slot = 0; slot < slotOrdinals.length; slot++) {
+            OrdinalBuffer matches = new OrdinalBuffer();
+            for (OrdinalBuffer[] range : rangeMatches) {
+                matches.addAll(range[slot]);
+            }
+            slotOrdinals[slot] = matches.toArray();
+        }
+        int[][] queryOrdinals = new int[querySlots.length][];
+        for (int query = 0; query < querySlots.length; query++) {
+            int slot = querySlots[query];
+            // Queries sharing a slot share its array, which is never modified
+            queryOrdinals[query] = slot == NO_SLOT ? new int[0] : slotOrdinals[slot];
+        }
+        return queryOrdinals;
+    }
+}
@@ -0,0 +1,78 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.Arrays;
+
+/**
+ * The OrdinalBuffer class is a growable buffer of combination ordinals backed by a primitive int array.
+ * Each search task collects its matches into its own buffer, so no synchronization is needed while scanning,
+ * and buffers of adjacent ranges are appended in range order when the tasks are joined.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class OrdinalBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] ordinals;
+    private int size;
+
+    /**
+     * Constructs an empty buffer with a default capacity.
+     */
+    OrdinalBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty buffer with the given capacity.
+     *
+     * @param capacity The initial capacity.
+     */
+    OrdinalBuffer(int capacity) {
+        ordinals = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends an ordinal to the buffer.
+     *
+     * @param ordinal The ordinal to append.
+     */
+    void add(int ordinal) {
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size << 1);
+        }
+        ordinals[size++] = ordinal;
+    }
+
+    /**
+     * Appends all ordinals of another buffer, keeping their order.
+     *
+     * @param other The buffer to append.
+     */
+    void addAll(OrdinalBuffer other) {
+        int required = size + other.size;
+        if (required > ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, Math.max(required, size << 1));
+        }
+        System.arraycopy(other.ordinals, 0, ordinals, size, other.size);
+        size = required;
+    }
+
+    /**
+     * Gets the number of ordinals in the buffer.
+     *
+     * @return The number of ordinals.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the ordinals into an array of exactly the buffer size.
+     *
+     * @return The ordinals in the order they were added.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ordinals, size);
+    }
+}
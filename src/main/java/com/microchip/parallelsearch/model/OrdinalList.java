@@ -0,0 +1,37 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The OrdinalList class is a read-only list view of entries of a corpus, given by their ordinals.
+ * Each entry is decoded into a String when it is accessed, so the view costs nothing until it is read.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class OrdinalList extends AbstractList<String> implements RandomAccess {
+
+    private final Corpus corpus;
+    private final int[] ordinals;
+
+    /**
+     * Constructs a list view of entries.
+     *
+     * @param corpus   The corpus the ordinals refer to.
+     * @param ordinals The ordinals of the entries in list order, which are not copied.
+     */
+    OrdinalList(Corpus corpus, int[] ordinals) {
+        this.corpus = corpus;
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    public String get(int index) {
+        return corpus.get(ordinals[index]);
+    }
+
+    @Override
+    public int size() {
+        return ordinals.length;
+    }
+}
@@ -0,0 +1,39 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The OutputFormat enum selects the file format the AsyncResultWriter saves search results in.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum OutputFormat {
+
+    /**
+     * A JSON array of strings, the format of found_strings.json.
+     */
+    JSON(".json"),
+
+    /**
+     * Newline delimited JSON, one JSON string per line.
+     */
+    NDJSON(".ndjson"),
+
+    /**
+     * A compact binary file: a header followed by the letters of every combination, without separators.
+     */
+    BINARY(".bin");
+
+    private final String extension;
+
+    OutputFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Gets the file extension of the format.
+     *
+     * @return The file extension, including the leading dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
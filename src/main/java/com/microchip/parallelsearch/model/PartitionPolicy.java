@@ -0,0 +1,152 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The PartitionPolicy class decides how finely a parallel scan is partitioned.
+ * The chunk size targets a fixed number of chunks per worker, so every CPU gets several chunks to balance load,
+ * but never drops below a minimum size, so the cost of scheduling a chunk stays small next to the cost of scanning it.
+ * The minimum size can be calibrated at startup from the measured per-entry cost of scanning the corpus.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class PartitionPolicy {
+
+    private static final Logger logger = LogManager.getLogger(PartitionPolicy.class);
+
+    /**
+     * The default number of chunks per worker.
+     */
+    public static final int DEFAULT_CHUNKS_PER_WORKER = 4;
+
+    /**
+     * The default minimum number of combinations in a chunk.
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 4096;
+
+    private static final int PROBE_SIZE = 1 << 14;
+    private static final int PROBE_ROUNDS = 64;
+
+    private final PartitionStrategy strategy;
+    private final int chunksPerWorker;
+    private final int minChunkSize;
+
+    /**
+     * Constructs a partition policy.
+     *
+     * @param strategy        The strategy used to split the range.
+     * @param chunksPerWorker The number of chunks each worker should get.
+     * @param minChunkSize    The minimum number of combinations in a chunk.
+     * @throws IllegalArgumentException if the strategy is null or a size is not positive.
+     */
+    public PartitionPolicy(PartitionStrategy strategy, int chunksPerWorker, int minChunkSize) {
+        if (strategy == null || chunksPerWorker <= 0 || minChunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid partition policy");
+        }
+        this.strategy = strategy;
+        this.chunksPerWorker = chunksPerWorker;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Gets the default partition policy: fork/join bisection with the default chunk sizing.
+     *
+     * @return The default partition policy.
+     */
+    public static PartitionPolicy defaultPolicy() {
+        return new PartitionPolicy(PartitionStrategy.BISECT, DEFAULT_CHUNKS_PER_WORKER, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Calibrates a partition policy with a micro-probe of the scan.
+     * The probe times a sequential count over a sample of the entries of the corpus the policy is used for,
+     * and derives the minimum chunk size for which scanning a chunk takes at least the given time.
+     *
+     * @param corpus          The corpus the policy partitions.
+     * @param strategy        The strategy used to split the range.
+     * @param chunksPerWorker The number of chunks each worker should get.
+     * @param minChunkNanos   The minimum time a chunk should take to scan, in nanoseconds.
+     * @return The calibrated partition policy.
+     */
+    public static PartitionPolicy calibrate(Corpus corpus, PartitionStrategy strategy, int chunksPerWorker, long minChunkNanos) {
+        logger.info("Entering into: calibrate()");
+        try {
+            MatchKernel probeKernel = MatchKernel.compile("A");
+            int probeSize = Math.min(PROBE_SIZE, corpus.size());
+            long bestNanos = Long.MAX_VALUE;
+            int matches = 0;
+            for (int round = 0; round < PROBE_ROUNDS; round++) {
+                long start = System.nanoTime();
+                matches += corpus.countRange(probeKernel, 0, probeSize);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            }
+            double nanosPerEntry = Math.max(bestNanos, 1L) / (double) Math.max(probeSize, 1);
+            int minChunkSize = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) Math.ceil(minChunkNanos / nanosPerEntry)));
+            logger.log(Level.INFO, "Calibrated scan cost: {} ns per entry, minimum chunk size: {} ({} probe matches)",
+                    nanosPerEntry, minChunkSize, matches);
+            return new PartitionPolicy(strategy, chunksPerWorker, minChunkSize);
+        } finally {
+            logger.info("Exiting from: calibrate()");
+        }
+    }
+
+    /**
+     * Gets the strategy used to split the range.
+     *
+     * @return The partition strategy.
+     */
+    public PartitionStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the number of chunks each worker should get.
+     *
+     * @return The number of chunks per worker.
+     */
+    public int getChunksPerWorker() {
+        return chunksPerWorker;
+    }
+
+    /**
+     * Gets the minimum number of combinations in a chunk.
+     *
+     * @return The minimum chunk size.
+     */
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    /**
+     * Computes the number of combinations in a chunk for a scan.
+     *
+     * @param size        The number of combinations to scan.
+     * @param parallelism The number of CPUs the scan uses.
+     * @return The chunk size, at least 1.
+     */
+    public int chunkSize(int size, int parallelism) {
+        long chunks = (long) parallelism * chunksPerWorker;
+        int targetSize = (int) ((size + chunks - 1) / chunks);
+        return Math.max(1, Math.max(minChunkSize, targetSize));
+    }
+
+    /**
+     * Computes the number of chunks a scan is split into.
+     *
+     * @param size        The number of combinations to scan.
+     * @param parallelism The number of CPUs the scan uses.
+     * @return The number of chunks.
+     */
+    public int chunkCount(int size, int parallelism) {
+        int chunkSize = chunkSize(size, parallelism);
+        return (int) (((long) size + chunkSize - 1) / chunkSize);
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionPolicy[strategy=" + strategy + ", chunksPerWorker=" + chunksPerWorker
+                + ", minChunkSize=" + minChunkSize + "]";
+    }
+}
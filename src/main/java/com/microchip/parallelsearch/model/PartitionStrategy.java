@@ -0,0 +1,19 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The PartitionStrategy enum selects how a parallel scan splits the combinations into partitions.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum PartitionStrategy {
+
+    /**
+     * Recursively bisect the range with fork/join tasks until a half is no larger than the chunk size.
+     */
+    BISECT,
+
+    /**
+     * Cut the range into chunks of the chunk size up front and submit them all at once.
+     */
+    FLAT
+}
@@ -0,0 +1,230 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The PatternAutomaton class is the compiled form of a pattern query: a deterministic automaton over the bytes of an entry.
+ * It is built once per query by subset construction from the Glushkov positions produced by the QueryParser,
+ * so matching an entry costs one table lookup per character whatever the complexity of the query.
+ * Bytes which the query cannot tell apart share a character class, so the transition table has one column per class
+ * rather than one per byte, and stays small enough to remain in the CPU cache.
+ * Reaching a last position of a term which is not anchored to the end moves the automaton into an absorbing match
+ * state, so a scan stops reading an entry as soon as it is known to match.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class PatternAutomaton implements CombinationMatcher {
+
+    /**
+     * The maximum number of states of an automaton.
+     */
+    public static final int MAX_STATES = 4096;
+
+    private static final int BYTE_VALUES = 1 << Byte.SIZE;
+    private static final int START = 0;
+    private static final int MATCH_STATE = 1;
+
+    private final int[] characterClasses; // the class of each byte value, indexed by the unsigned byte
+    private final int classCount;
+    private final int match; // the row of the match state
+    private final int[] transitions; // the row of the next state, indexed by the row of a state plus a character class
+    private final boolean[] accepting; // whether a state accepts at the end of an entry, indexed by state
+    private final boolean matchesEverything;
+    private final boolean matchesNothing;
+    private final int positionCount;
+
+    /**
+     * Constructs the automaton of a parsed query.
+     *
+     * @param characterPositions The positions accepting each ASCII character.
+     * @param follow             The positions which may follow each position.
+     * @param positionCount      The number of positions.
+     * @param firstFloating      The first positions of the terms which are not anchored to the start.
+     * @param firstAnchored      The first positions of the terms which are anchored to the start.
+     * @param lastFloating       The last positions of the terms which are not anchored to the end.
+     * @param lastAnchored       The last positions of the terms which are anchored to the end.
+     * @param matchesEverything  Whether a term matches the empty text, and therefore every entry.
+     * @throws IllegalArgumentException if the automaton exceeds the maximum number of states.
+     */
+    PatternAutomaton(long[] characterPositions, long[] follow, int positionCount, long firstFloating, long firstAnchored,
+                     long lastFloating, long lastAnchored, boolean matchesEverything) {
+        this.positionCount = positionCount;
+        this.matchesEverything = matchesEverything;
+
+        // Bytes accepted by the same positions form one class; class 0 holds the bytes no position accepts
+        characterClasses = new int[BYTE_VALUES];
+        List<Long> classPositions = new ArrayList<>();
+        classPositions.add(0L);
+        Map<Long, Integer> classIds = new HashMap<>();
+        classIds.put(0L, 0);
+        for (int c = 0; c < characterPositions.length; c++) {
+            Integer classId = classIds.get(characterPositions[c]);
+            if (classId == null) {
+                classId = classPositions.size();
+                classPositions.add(characterPositions[c]);
+                classIds.put(characterPositions[c], classId);
+            }
+            characterClasses[c] = classId;
+        }
+        classCount = classPositions.size();
+        match = MATCH_STATE * classCount;
+
+        // A state is the set of active positions; the start state and the match state have no set of their own
+        Map<Long, Integer> stateIds = new HashMap<>();
+        long[] states = new long[16];
+        int[] table = new int[16 * classCount];
+        boolean[] accepts = new boolean[16];
+        int stateCount = 2;
+        accepts[MATCH_STATE] = true;
+        Arrays.fill(table, match, match + classCount, match);
+        boolean reachesMatch = false;
+
+        for (int state = START; state < stateCount; state++) {
+            if (state == MATCH_STATE) {
+                continue;
+            }
+            long follows = state == START ? firstAnchored : 0L;
+            for (long active = states[state]; active != 0; active &= active - 1) {
+                follows |= follow[Long.numberOfTrailingZeros(active)];
+            }
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                long next = (follows | firstFloating) & classPositions.get(characterClass);
+                int nextRow;
+                if ((next & lastFloating) != 0) {
+                    nextRow = match;
+                    reachesMatch = true;
+                } else {
+                    Integer nextState = stateIds.get(next);
+                    if (nextState == null) {
+                        if (stateCount == MAX_STATES) {
+                            throw new IllegalArgumentException("Query is too complex, it exceeds " + MAX_STATES + " states");
+                        }
+                        if (stateCount == states.length) {
+                            states = Arrays.copyOf(states, stateCount * 2);
+                            accepts = Arrays.copyOf(accepts, stateCount * 2);
+                            table = Arrays.copyOf(table, stateCount * 2 * classCount);
+                        }
+                        nextState = stateCount++;
+                        states[nextState] = next;
+                        accepts[nextState] = (next & lastAnchored) != 0;
+                        stateIds.put(next, nextState);
+                    }
+                    nextRow = nextState * classCount;
+                }
+                table[state * classCount + characterClass] = nextRow;
+            }
+        }
+
+        boolean acceptsAtEnd = false;
+        for (int state = 0; state < stateCount; state++) {
+            acceptsAtEnd |= state != MATCH_STATE && accepts[state];
+        }
+        this.transitions = Arrays.copyOf(table, stateCount * classCount);
+        this.accepting = Arrays.copyOf(accepts, stateCount);
+        this.matchesNothing = !matchesEverything && !reachesMatch && !acceptsAtEnd;
+    }
+
+    /**
+     * Compiles the given pattern query into an automaton.
+     *
+     * @param query The pattern query, matched case-insensitively.
+     * @return The compiled query.
+     * @throws IllegalArgumentException if the query is malformed or too complex.
+     */
+    public static PatternAutomaton compile(String query) {
+        return new QueryParser(query).parse();
+    }
+
+    @Override
+    public boolean matchesNothing() {
+        return matchesNothing;
+    }
+
+    @Override
+    public boolean matches(byte[] letters, int offset, int length) {
+        if (matchesEverything) {
+            return true;
+        }
+        int[] classes = characterClasses;
+        int row = START;
+        if (length == Integer.BYTES) {
+            // The match state is absorbing, so an entry of 4 characters is checked once after the last character
+            row = transitions[row + classes[letters[offset] & 0xFF]];
+            row = transitions[row + classes[letters[offset + 1] & 0xFF]];
+            row = transitions[row + classes[letters[offset + 2] & 0xFF]];
+            row = transitions[row + classes[letters[offset + 3] & 0xFF]];
+            return accepting[row / classCount];
+        }
+        for (int i = offset, end = offset + length; i < end; i++) {
+            row = transitions[row + classes[letters[i] & 0xFF]];
+            if (row == match) {
+                return true;
+            }
+        }
+        return accepting[row / classCount];
+    }
+
+    /**
+     * Counts the strings of the given length over the given alphabet which the automaton accepts, without enumerating them.
+     * The automaton is run over all strings at once: it tracks how many strings end in each state and extends all of them
+     * by every character class of the alphabet, weighted by the number of letters in the class.
+     *
+     * @param alphabet The distinct upper-case letters of the alphabet.
+     * @param length   The length of the strings.
+     * @return The number of accepted strings.
+     */
+    long countAccepted(byte[] alphabet, int length) {
+        long total = 1;
+        for (int i = 0; i < length; i++) {
+            total *= alphabet.length;
+        }
+        if (matchesEverything || matchesNothing) {
+            return matchesEverything ? total : 0;
+        }
+        // Letters of the same character class lead to the same state, so they are counted once per class
+        long[] classSizes = new long[classCount];
+        for (byte letter : alphabet) {
+            classSizes[characterClasses[letter & 0xFF]]++;
+        }
+        int stateCount = accepting.length;
+        long[] counts = new long[stateCount];
+        counts[START] = 1;
+        for (int position = 0; position < length; position++) {
+            long[] extended = new long[stateCount];
+            for (int state = 0; state < stateCount; state++) {
+                if (counts[state] != 0) {
+                    int row = state * classCount;
+                    for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                        extended[transitions[row + characterClass] / classCount] += counts[state] * classSizes[characterClass];
+                    }
+                }
+            }
+            counts = extended;
+        }
+        long accepted = 0;
+        for (int state = 0; state < stateCount; state++) {
+            if (accepting[state]) {
+                accepted += counts[state];
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Gets the number of states.
+     *
+     * @return The number of states of the automaton.
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    @Override
+    public String toString() {
+        return "PatternAutomaton[positions=" + positionCount + ", classes=" + classCount + ", states=" + getStateCount() + "]";
+    }
+}
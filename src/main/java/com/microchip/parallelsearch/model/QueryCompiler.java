@@ -0,0 +1,51 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The QueryCompiler class compiles the text of a query into a CombinationMatcher.
+ * A query without any operator is a literal, which is compiled into a MatchKernel and can be answered by the SubstringIndex;
+ * any other query is a pattern, which is compiled into a PatternAutomaton. See QueryParser for the syntax of patterns.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class QueryCompiler {
+
+    /**
+     * The maximum length of a query.
+     */
+    public static final int MAX_QUERY_LENGTH = 64;
+
+    private static final String OPERATORS = "?*[]^$|";
+
+    private QueryCompiler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks whether a query is a pattern rather than a literal.
+     *
+     * @param query The query.
+     * @return true if the query is a regular expression enclosed in slashes or contains a glob operator.
+     */
+    public static boolean isPattern(String query) {
+        if (query.length() >= 2 && query.charAt(0) == '/' && query.charAt(query.length() - 1) == '/') {
+            return true;
+        }
+        for (int i = 0; i < query.length(); i++) {
+            if (OPERATORS.indexOf(query.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles a query.
+     *
+     * @param query The query, matched case-insensitively.
+     * @return The compiled query.
+     * @throws IllegalArgumentException if the query is a malformed or too complex pattern.
+     */
+    public static CombinationMatcher compile(String query) {
+        return isPattern(query) ? PatternAutomaton.compile(query) : MatchKernel.compile(query);
+    }
+}
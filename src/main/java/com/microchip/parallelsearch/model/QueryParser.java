@@ -0,0 +1,406 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.BitSet;
+
+/**
+ * The QueryParser class parses a pattern query into a PatternAutomaton.
+ * The parser builds the Glushkov automaton of the query while it descends: every character, wildcard or character class
+ * becomes a position, and the first, last and follow sets of the positions are kept as bitmasks of at most 64 positions.
+ * Bounded repetitions are expanded by parsing the repeated atom again, so every copy gets positions of its own.
+ * <p>
+ * A query is one or more terms separated by '|'. A term may start with '^' and end with '$' to anchor it
+ * to the start or the end of a combination, an unanchored term matches anywhere in a combination.
+ * A term is a glob made of characters, '?' for any single character, '*' for any run of characters and character classes
+ * such as [AEIOU], [A-F], [0-9] or [^XYZ]. Letters are matched case-insensitively. A query enclosed in slashes is a regular expression instead, whose terms
+ * also support groups, '.', and the quantifiers '*', '+', '?', {n}, {n,} and {n,m}.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class QueryParser {
+
+    /**
+     * The maximum number of positions of a query.
+     */
+    static final int MAX_POSITIONS = Long.SIZE;
+
+    private static final int CHARSET_SIZE = Byte.MAX_VALUE + 1;
+    private static final BitSet ANY_CHARACTER = new BitSet(CHARSET_SIZE);
+
+    static {
+        ANY_CHARACTER.set(0, CHARSET_SIZE);
+    }
+    private static final int MAX_REPEAT = MAX_POSITIONS;
+
+    private final String query;
+    private final boolean regex;
+    private final int end;
+    private int index;
+
+    private final long[] characterPositions = new long[CHARSET_SIZE];
+    private final long[] follow = new long[MAX_POSITIONS];
+    private int positionCount;
+
+    private long firstFloating;
+    private long firstAnchored;
+    private long lastFloating;
+    private long lastAnchored;
+    private boolean matchesEverything;
+
+    /**
+     * Constructs a parser for the given query.
+     *
+     * @param query The query to parse.
+     */
+    QueryParser(String query) {
+        this.query = query;
+        this.regex = query.length() >= 2 && query.charAt(0) == '/' && query.charAt(query.length() - 1) == '/';
+        this.index = regex ? 1 : 0;
+        this.end = regex ? query.length() - 1 : query.length();
+    }
+
+    /**
+     * Parses the query and compiles it into an automaton.
+     *
+     * @return The compiled query.
+     * @throws IllegalArgumentException if the query is malformed or has too many positions.
+     */
+    PatternAutomaton parse() {
+        parseTerm();
+        while (index < end) {
+            expect('|');
+            parseTerm();
+        }
+        return new PatternAutomaton(characterPositions, follow, positionCount,
+                firstFloating, firstAnchored, lastFloating, lastAnchored, matchesEverything);
+    }
+
+    /**
+     * Parses a term of the query with its anchors and adds it to the first and last sets of the query.
+     */
+    private void parseTerm() {
+        boolean anchoredStart = accept('^');
+        Fragment fragment = regex ? parseSequence() : parseGlob();
+        boolean anchoredEnd = accept('$');
+        if (index < end && query.charAt(index) != '|') {
+            throw error(query.charAt(index) == ')' ? "Unexpected ')'" : "Anchors are only supported at the start or end of a term");
+        }
+        if (anchoredStart) {
+            firstAnchored |= fragment.first;
+        } else {
+            firstFloating |= fragment.first;
+        }
+        if (anchoredEnd) {
+            lastAnchored |= fragment.last;
+        } else {
+            lastFloating |= fragment.last;
+        }
+        // A term matching the empty text matches every combination unless it must span the whole combination
+        matchesEverything |= fragment.nullable && !(anchoredStart && anchoredEnd);
+    }
+
+    /**
+     * Parses the glob of a term.
+     *
+     * @return The fragment of the glob.
+     */
+    private Fragment parseGlob() {
+        Fragment fragment = Fragment.EMPTY;
+        while (index < end && !atTermEnd()) {
+            char c = query.charAt(index++);
+            Fragment item = switch (c) {
+                case '?' -> position(ANY_CHARACTER);
+                case '*' -> star(position(ANY_CHARACTER));
+                case '[' -> position(parseClass());
+                case '^', ']' -> throw error("Unexpected '" + c + "'");
+                default -> position(character(c));
+            };
+            fragment = concat(fragment, item);
+        }
+        return fragment;
+    }
+
+    /**
+     * Parses an alternation of sequences inside a regular expression group.
+     *
+     * @return The fragment of the alternation.
+     */
+    private Fragment parseAlternation() {
+        Fragment fragment = parseSequence();
+        while (accept('|')) {
+            fragment = alternate(fragment, parseSequence());
+        }
+        return fragment;
+    }
+
+    /**
+     * Parses a sequence of quantified atoms of a regular expression.
+     *
+     * @return The fragment of the sequence.
+     */
+    private Fragment parseSequence() {
+        Fragment fragment = Fragment.EMPTY;
+        while (index < end && !atTermEnd() && query.charAt(index) != ')') {
+            fragment = concat(fragment, parseQuantifiedAtom());
+        }
+        return fragment;
+    }
+
+    /**
+     * Parses an atom of a regular expression followed by an optional quantifier.
+     * The atom is parsed again for every additional copy a quantifier requires.
+     *
+     * @return The fragment of the quantified atom.
+     */
+    private Fragment parseQuantifiedAtom() {
+        int atomStart = index;
+        Fragment atom = parseAtom();
+        if (index >= end) {
+            return atom;
+        }
+        char c = query.charAt(index);
+        int min;
+        int max;
+        switch (c) {
+            case '*' -> {
+                index++;
+                return star(atom);
+            }
+            case '?' -> {
+                index++;
+                return optional(atom);
+            }
+            case '+' -> {
+                min = 1;
+                max = -1;
+                index++;
+            }
+            case '{' -> {
+                index++;
+                min = parseNumber();
+                max = accept(',') ? (index < end && query.charAt(index) == '}' ? -1 : parseNumber()) : min;
+                expect('}');
+                if (max != -1 && max < min) {
+                    throw error("Invalid repetition bounds");
+                }
+            }
+            default -> {
+                return atom;
+            }
+        }
+        if (index < end && "*+?{".indexOf(query.charAt(index)) >= 0) {
+            throw error("Nested quantifiers are not supported");
+        }
+        int quantifierEnd = index;
+        // The first copy is the atom already parsed, every further copy parses the atom again
+        Fragment fragment = Fragment.EMPTY;
+        int copies = 0;
+        for (; copies < min; copies++) {
+            fragment = concat(fragment, copies == 0 ? atom : parseCopy(atomStart));
+        }
+        if (max == -1) {
+            fragment = concat(fragment, star(copies == 0 ? atom : parseCopy(atomStart)));
+        } else {
+            for (; copies < max; copies++) {
+                fragment = concat(fragment, optional(copies == 0 ? atom : parseCopy(atomStart)));
+            }
+        }
+        index = quantifierEnd;
+        return fragment;
+    }
+
+    /**
+     * Parses another copy of the atom at the given index.
+     *
+     * @param atomStart The index of the atom.
+     * @return The fragment of the copy, with positions of its own.
+     */
+    private Fragment parseCopy(int atomStart) {
+        index = atomStart;
+        return parseAtom();
+    }
+
+    /**
+     * Parses an atom of a regular expression: a character, '.', a character class or a group.
+     *
+     * @return The fragment of the atom.
+     */
+    private Fragment parseAtom() {
+        if (index >= end) {
+            throw error("Unexpected end of query");
+        }
+        char c = query.charAt(index++);
+        return switch (c) {
+            case '.' -> position(ANY_CHARACTER);
+            case '[' -> position(parseClass());
+            case '(' -> {
+                Fragment group = parseAlternation();
+                expect(')');
+                yield group;
+            }
+            case '*', '+', '?', '{', '}', ')', ']', '^', '$', '|' -> throw error("Unexpected '" + c + "'");
+            default -> position(character(c));
+        };
+    }
+
+    /**
+     * Parses a character class after its opening bracket.
+     * Ranges are taken over the characters as written and then folded, so [a-c] is [A-C] and [_-a] holds '_', '`' and 'A'.
+     *
+     * @return The set of characters of the class.
+     * @throws IllegalArgumentException if the class is empty, unterminated or holds a range whose end precedes its start.
+     */
+    private BitSet parseClass() {
+        boolean negated = accept('^');
+        BitSet characters = new BitSet(CHARSET_SIZE);
+        boolean empty = true;
+        while (index < end && query.charAt(index) != ']') {
+            int rangeStart = index;
+            char from = query.charAt(index++);
+            char to = from;
+            if (index + 1 < end && query.charAt(index) == '-' && query.charAt(index + 1) != ']') {
+                index++;
+                to = query.charAt(index++);
+                if (to < from) {
+                    index = rangeStart;
+                    throw error("Invalid character range '" + from + "-" + to + "'");
+                }
+            }
+            for (int c = from; c <= to && c < CHARSET_SIZE; c++) {
+                characters.set(fold((char) c));
+            }
+            empty = false;
+        }
+        if (empty) {
+            throw error("Empty character class");
+        }
+        expect(']');
+        if (negated) {
+            characters.flip(0, CHARSET_SIZE);
+        }
+        return characters;
+    }
+
+    /**
+     * Parses a repetition bound.
+     *
+     * @return The bound.
+     */
+    private int parseNumber() {
+        int start = index;
+        int number = 0;
+        while (index < end && Character.isDigit(query.charAt(index))) {
+            number = number * 10 + query.charAt(index++) - '0';
+            if (number > MAX_REPEAT) {
+                throw error("Repetition bound exceeds " + MAX_REPEAT);
+            }
+        }
+        if (index == start) {
+            throw error("Expected a repetition bound");
+        }
+        return number;
+    }
+
+    /**
+     * Creates a position accepting the given characters.
+     *
+     * @param characters The set of characters.
+     * @return The fragment of the single position.
+     */
+    private Fragment position(BitSet characters) {
+        if (positionCount == MAX_POSITIONS) {
+            throw error("Query is too complex, it exceeds " + MAX_POSITIONS + " positions");
+        }
+        long bit = 1L << positionCount++;
+        for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) {
+            characterPositions[c] |= bit;
+        }
+        return new Fragment(bit, bit, false);
+    }
+
+    /**
+     * Concatenates two fragments, so the last positions of the first one are followed by the first positions of the second one.
+     */
+    private Fragment concat(Fragment left, Fragment right) {
+        for (long last = left.last; last != 0; last &= last - 1) {
+            follow[Long.numberOfTrailingZeros(last)] |= right.first;
+        }
+        return new Fragment(left.nullable ? left.first | right.first : left.first,
+                right.nullable ? left.last | right.last : right.last,
+                left.nullable && right.nullable);
+    }
+
+    /**
+     * Repeats a fragment any number of times, so its last positions are followed by its first positions.
+     */
+    private Fragment star(Fragment fragment) {
+        for (long last = fragment.last; last != 0; last &= last - 1) {
+            follow[Long.numberOfTrailingZeros(last)] |= fragment.first;
+        }
+        return new Fragment(fragment.first, fragment.last, true);
+    }
+
+    private static Fragment optional(Fragment fragment) {
+        return new Fragment(fragment.first, fragment.last, true);
+    }
+
+    private static Fragment alternate(Fragment left, Fragment right) {
+        return new Fragment(left.first | right.first, left.last | right.last, left.nullable || right.nullable);
+    }
+
+    /**
+     * Gets the set of the given character.
+     *
+     * @param c The character, matched case-insensitively.
+     * @return The set holding the character, or the empty set if the character never occurs in an entry.
+     */
+    private static BitSet character(char c) {
+        BitSet characters = new BitSet(CHARSET_SIZE);
+        int folded = fold(c);
+        if (folded < CHARSET_SIZE) {
+            characters.set(folded);
+        }
+        return characters;
+    }
+
+    /**
+     * Folds a character into the upper-case ASCII used by every corpus.
+     *
+     * @param c The character.
+     * @return The folded character, or a value of at least 128 if the character is not ASCII.
+     */
+    private static int fold(char c) {
+        return c < CHARSET_SIZE ? Character.toUpperCase(c) : c;
+    }
+
+    private boolean atTermEnd() {
+        char c = query.charAt(index);
+        return c == '|' || c == '$';
+    }
+
+    private boolean accept(char c) {
+        if (index < end && query.charAt(index) == c) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + index + " of query: " + query);
+    }
+
+    /**
+     * The Fragment class holds the first and last positions of a parsed part of the query
+     * and whether that part matches the empty text.
+     */
+    private record Fragment(long first, long last, boolean nullable) {
+
+        static final Fragment EMPTY = new Fragment(0L, 0L, true);
+    }
+}
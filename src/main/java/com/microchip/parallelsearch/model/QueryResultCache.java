@@ -0,0 +1,196 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The QueryResultCache class is a bounded, least recently used cache of search results.
+ * Results are keyed by the normalized (upper-case) search text and stored as ascending ordinal arrays.
+ * The cache is bounded both by its number of entries and by the total number of ordinals it holds;
+ * the least recently used entries are evicted first when either bound is exceeded.
+ * When a search text is not cached but one of its prefixes or suffixes is, the cached result of that substring is a
+ * superset of the wanted matches, so the caller can refine it instead of scanning the whole corpus. This covers queries
+ * typed incrementally, where every keystroke extends the previous query at its end or at its start.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class QueryResultCache {
+
+    /**
+     * The default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * The default maximum number of ordinals held by all cached results together.
+     */
+    public static final int DEFAULT_MAX_ORDINALS = 4 * 1024 * 1024;
+
+    private final int maxEntries;
+    private final long maxOrdinals;
+    private final LinkedHashMap<String, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long ordinalCount;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder refinements = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache with the given bounds.
+     *
+     * @param maxEntries  The maximum number of cached results.
+     * @param maxOrdinals The maximum number of ordinals held by all cached results together.
+     * @throws IllegalArgumentException if a bound is not positive.
+     */
+    public QueryResultCache(int maxEntries, long maxOrdinals) {
+        if (maxEntries <= 0 || maxOrdinals <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxOrdinals = maxOrdinals;
+    }
+
+    /**
+     * Gets the cached result of a search text.
+     *
+     * @param key The normalized search text.
+     * @return The cached ordinals, or null if the search text is not cached.
+     */
+    public synchronized int[] get(String key) {
+        int[] ordinals = entries.get(key);
+        if (ordinals != null) {
+            hits.increment();
+        }
+        return ordinals;
+    }
+
+    /**
+     * Finds the cached result of the longest proper prefix or the longest proper suffix of a search text,
+     * whichever is smaller. Every combination containing the search text also contains its prefixes and suffixes,
+     * so the result is a superset of the matches of the search text; a longer prefix or suffix has the smaller result,
+     * so each side stops probing at its first cached one. Counts as a refinement if a result is found and as a miss otherwise.
+     *
+     * @param key The normalized search text.
+     * @return The ordinals of the cached superset, or null if no prefix or suffix is cached.
+     */
+    public int[] findSuperset(String key) {
+        int[] superset;
+        int length = key.length();
+        synchronized (this) {
+            int[] prefix = null;
+            int[] suffix = null;
+            for (int substringLength = length - 1; substringLength > 0 && (prefix == null || suffix == null); substringLength--) {
+                if (prefix == null) {
+                    prefix = entries.get(key.substring(0, substringLength));
+                }
+                if (suffix == null) {
+                    suffix = entries.get(key.substring(length - substringLength));
+                }
+            }
+            superset = prefix == null || suffix != null && suffix.length < prefix.length ? suffix : prefix;
+        }
+        if (superset == null) {
+            misses.increment();
+        } else {
+            refinements.increment();
+        }
+        return superset;
+    }
+
+    /**
+     * Caches the result of a search text, evicting the least recently used results if the cache is full.
+     * A result larger than the ordinal bound of the whole cache is not cached.
+     *
+     * @param key      The normalized search text.
+     * @param ordinals The ascending ordinals of the matches, which must not be modified afterwards.
+     */
+    public synchronized void put(String key, int[] ordinals) {
+        if (ordinals.length > maxOrdinals) {
+            return;
+        }
+        int[] previous = entries.put(key, ordinals);
+        ordinalCount += ordinals.length - (previous == null ? 0 : previous.length);
+        Iterator<Map.Entry<String, int[]>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || ordinalCount > maxOrdinals) && iterator.hasNext()) {
+            Map.Entry<String, int[]> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            ordinalCount -= eldest.getValue().length;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes all cached results. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        ordinalCount = 0;
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of ordinals held by all cached results together.
+     *
+     * @return The number of cached ordinals.
+     */
+    public synchronized long getOrdinalCount() {
+        return ordinalCount;
+    }
+
+    /**
+     * Gets the number of lookups answered by an exact cached result.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups answered by refining the cached result of a substring.
+     *
+     * @return The number of refinements.
+     */
+    public long getRefinementCount() {
+        return refinements.sum();
+    }
+
+    /**
+     * Gets the number of lookups which found neither the search text nor any of its substrings.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of results evicted to keep the cache within its bounds.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResultCache[entries=" + size() + ", ordinals=" + getOrdinalCount() + ", hits=" + getHitCount()
+                + ", refinements=" + getRefinementCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "]";
+    }
+}
@@ -0,0 +1,54 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.List;
+
+/**
+ * The ResultBatch class holds one batch of matches delivered by a streaming search.
+ * A batch covers one partition of the corpus; batches are delivered in corpus order and the ordinals
+ * inside a batch are ascending, so the concatenation of all batches equals the result of a blocking search.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class ResultBatch {
+
+    private final Corpus corpus;
+    private final int[] ordinals;
+
+    /**
+     * Constructs a batch of matches.
+     *
+     * @param corpus   The corpus the ordinals refer to.
+     * @param ordinals The ascending ordinals of the matching combinations, owned by the batch.
+     */
+    ResultBatch(Corpus corpus, int[] ordinals) {
+        this.corpus = corpus;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Gets the number of matching combinations in the batch.
+     *
+     * @return The number of matches.
+     */
+    public int getCount() {
+        return ordinals.length;
+    }
+
+    /**
+     * Gets the matching combinations of the batch, as a read-only list which decodes each combination when it is accessed.
+     *
+     * @return The matching combinations.
+     */
+    public List<String> getMatches() {
+        return new OrdinalList(corpus, ordinals);
+    }
+
+    /**
+     * Gets a copy of the ordinals of the matching combinations.
+     *
+     * @return The ascending ordinals of the matches.
+     */
+    public int[] getOrdinals() {
+        return ordinals.clone();
+    }
+}
@@ -0,0 +1,34 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The ScanBackend enum selects how a range of entries is matched during a scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum ScanBackend {
+
+    /**
+     * Match the entries one at a time with the compiled CombinationMatcher.
+     */
+    SCALAR,
+
+    /**
+     * Match many 4-letter entries per instruction with the incubating Java Vector API.
+     * The backend is only available if the jdk.incubator.vector module is resolved, for example with
+     * --add-modules jdk.incubator.vector, and it only applies to plain substring queries over a CombinationStore
+     * of 4-letter combinations; every other scan runs on the scalar backend.
+     */
+    VECTOR;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Checks whether this backend can be used in the running JVM.
+     * The vector backend is checked without loading any class of the Vector API.
+     *
+     * @return true if this backend is available.
+     */
+    public boolean isAvailable() {
+        return this == SCALAR || ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
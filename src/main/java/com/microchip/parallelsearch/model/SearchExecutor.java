@@ -0,0 +1,162 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The SearchExecutor class owns the threads that run the parallel scans of a search engine.
+ * It is created once and reused by every search, instead of starting and stopping a pool per query.
+ * Depending on the ExecutionMode, the work runs on a ForkJoinPool sized to the configured parallelism
+ * or on one virtual thread per submitted partition, of which at most parallelism run at the same time while the others
+ * wait for a permit.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class SearchExecutor implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(SearchExecutor.class);
+
+    private final ExecutionMode executionMode;
+    private final int parallelism;
+    private final ExecutorService executorService;
+    private final Semaphore permits; // limits the running virtual threads to the parallelism, null in fork/join mode
+
+    /**
+     * Constructs an executor for the given mode and parallelism.
+     *
+     * @param executionMode The mode used to run the partitions of a scan.
+     * @param parallelism   The number of CPUs the scan should use.
+     */
+    SearchExecutor(ExecutionMode executionMode, int parallelism) {
+        this.executionMode = executionMode;
+        this.parallelism = parallelism;
+        this.executorService = executionMode == ExecutionMode.FORK_JOIN
+                ? new ForkJoinPool(parallelism)
+                : Executors.newVirtualThreadPerTaskExecutor();
+        this.permits = executionMode == ExecutionMode.FORK_JOIN ? null : new Semaphore(parallelism);
+        logger.log(Level.INFO, "Search executor started in {} mode with parallelism {}", executionMode, parallelism);
+    }
+
+    /**
+     * Gets the execution mode.
+     *
+     * @return The mode used to run the partitions of a scan.
+     */
+    ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Gets the parallelism.
+     *
+     * @return The number of CPUs the scan uses.
+     */
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the number of tasks stolen between the workers of the pool so far.
+     *
+     * @return The steal count, always 0 in virtual thread mode.
+     */
+    long getStealCount() {
+        return executorService instanceof ForkJoinPool forkJoinPool ? forkJoinPool.getStealCount() : 0;
+    }
+
+    /**
+     * Runs a fork/join task on the pool and waits for its result.
+     *
+     * @param task The task to run.
+     * @param <T>  The result type of the task.
+     * @return The result of the task.
+     * @throws IllegalStateException if the executor does not run in fork/join mode.
+     */
+    <T> T invoke(ForkJoinTask<T> task) {
+        if (!(executorService instanceof ForkJoinPool forkJoinPool)) {
+            throw new IllegalStateException("Fork/join tasks require the " + ExecutionMode.FORK_JOIN + " execution mode");
+        }
+        return forkJoinPool.invoke(task);
+    }
+
+    /**
+     * Runs all partitions concurrently and waits for their results.
+     *
+     * @param partitions The partitions to run.
+     * @param <T>        The result type of a partition.
+     * @return The results, in the order of the partitions.
+     * @throws ExecutionException   if a partition failed.
+     * @throws InterruptedException if the calling thread was interrupted while waiting.
+     */
+    <T> List<T> invokeAll(List<? extends Callable<T>> partitions) throws ExecutionException, InterruptedException {
+        List<Future<T>> futures;
+        if (permits == null) {
+            futures = executorService.invokeAll(partitions);
+        } else {
+            List<Callable<T>> limitedPartitions = new ArrayList<>(partitions.size());
+            for (Callable<T> partition : partitions) {
+                limitedPartitions.add(() -> {
+                    permits.acquire();
+                    try {
+                        return partition.call();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            futures = executorService.invokeAll(limitedPartitions);
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * Runs a partition asynchronously.
+     *
+     * @param partition The partition to run.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor has been shut down.
+     */
+    void execute(Runnable partition) {
+        if (permits == null) {
+            executorService.execute(partition);
+            return;
+        }
+        executorService.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                partition.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Shuts the executor down. Partitions already submitted still run to completion.
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+        logger.log(Level.INFO, "Search executor in {} mode shut down", executionMode);
+    }
+}
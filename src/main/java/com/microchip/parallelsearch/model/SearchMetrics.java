@@ -0,0 +1,239 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The SearchMetrics class collects the metrics of a search engine: the latency and result size of every query,
+ * the duration of every SearchPhase, the number of fork/join tasks forked by bisected scans and the number of tasks
+ * stolen between the workers of the pool.
+ * Recording only updates lock-free counters and histograms, so it replaces the logging which used to run
+ * on the hot path of every scan. The metrics can be read through JMX once registered, or dumped periodically
+ * by a MetricsReporter.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class SearchMetrics implements SearchMetricsMXBean {
+
+    private static final Logger logger = LogManager.getLogger(SearchMetrics.class);
+
+    /**
+     * The domain of the JMX object names of search metrics.
+     */
+    public static final String JMX_DOMAIN = "com.microchip.parallelsearch";
+
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+
+    private final Histogram queryLatency = new Histogram();
+    private final Histogram resultSizes = new Histogram();
+    private final Map<SearchPhase, Histogram> phases = new EnumMap<>(SearchPhase.class);
+    private final LongAdder tasksForked = new LongAdder();
+    private volatile LongSupplier stealCount = () -> 0;
+    private volatile ObjectName objectName;
+
+    /**
+     * Constructs empty metrics.
+     */
+    public SearchMetrics() {
+        for (SearchPhase phase : SearchPhase.values()) {
+            phases.put(phase, new Histogram());
+        }
+    }
+
+    /**
+     * Records a completed query.
+     *
+     * @param latencyNanos The time the query took, in nanoseconds.
+     * @param resultSize   The number of matches.
+     */
+    void recordQuery(long latencyNanos, int resultSize) {
+        queryLatency.record(latencyNanos);
+        resultSizes.record(resultSize);
+    }
+
+    /**
+     * Records a run of a search phase.
+     *
+     * @param phase         The phase.
+     * @param durationNanos The time the phase took, in nanoseconds.
+     */
+    void recordPhase(SearchPhase phase, long durationNanos) {
+        phases.get(phase).record(durationNanos);
+    }
+
+    /**
+     * Counts a fork/join subtask forked by a bisected scan.
+     */
+    void taskForked() {
+        tasksForked.increment();
+    }
+
+    /**
+     * Sets the source of the steal count.
+     *
+     * @param stealCount The supplier of the number of tasks stolen so far.
+     */
+    void setStealCount(LongSupplier stealCount) {
+        this.stealCount = stealCount;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, under the name
+     * com.microchip.parallelsearch:type=SearchMetrics,name=&lt;name&gt;.
+     *
+     * @param name The name distinguishing these metrics from those of other engines.
+     * @throws JMException if the name is invalid or already registered.
+     */
+    public void register(String name) throws JMException {
+        logger.info("Entering into: register()");
+        try {
+            ObjectName registeredName = new ObjectName(JMX_DOMAIN + ":type=SearchMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, registeredName);
+            objectName = registeredName;
+            logger.log(Level.INFO, "Search metrics registered as: {}", registeredName);
+        } finally {
+            logger.info("Exiting from: register()");
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they are registered.
+     */
+    public void unregister() {
+        ObjectName registeredName = objectName;
+        if (registeredName == null) {
+            return;
+        }
+        objectName = null;
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            mBeanServer.unregisterMBean(registeredName);
+        } catch (JMException jmException) {
+            logger.error("Error occurred while unregistering search metrics: {}", jmException.getMessage());
+        }
+    }
+
+    /**
+     * Gets a percentile of the duration of a search phase.
+     *
+     * @param phase      The phase.
+     * @param percentile The fraction, from 0 to 1.
+     * @return The percentile of the duration in microseconds.
+     */
+    public long getPhaseLatencyMicros(SearchPhase phase, double percentile) {
+        return micros(phases.get(phase).getPercentile(percentile));
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queryLatency.getCount();
+    }
+
+    @Override
+    public long getQueryLatencyP50Micros() {
+        return micros(queryLatency.getPercentile(P50));
+    }
+
+    @Override
+    public long getQueryLatencyP99Micros() {
+        return micros(queryLatency.getPercentile(P99));
+    }
+
+    @Override
+    public long getQueryLatencyMaxMicros() {
+        return micros(queryLatency.getMax());
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP50Micros() {
+        return byPhase(histogram -> micros(histogram.getPercentile(P50)));
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP99Micros() {
+        return byPhase(histogram -> micros(histogram.getPercentile(P99)));
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return byPhase(Histogram::getCount);
+    }
+
+    @Override
+    public long getTasksForked() {
+        return tasksForked.sum();
+    }
+
+    @Override
+    public long getStealCount() {
+        return stealCount.getAsLong();
+    }
+
+    @Override
+    public long getResultSizeP50() {
+        return resultSizes.getPercentile(P50);
+    }
+
+    @Override
+    public long getResultSizeP99() {
+        return resultSizes.getPercentile(P99);
+    }
+
+    @Override
+    public long getTotalResults() {
+        return resultSizes.getSum();
+    }
+
+    private Map<String, Long> byPhase(ToLongFunction<Histogram> value) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<SearchPhase, Histogram> phase : phases.entrySet()) {
+            values.put(phase.getKey().name(), value.applyAsLong(phase.getValue()));
+        }
+        return values;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Summarizes the metrics on a single line, with durations in microseconds.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("SearchMetrics[queries=").append(getQueryCount())
+                .append(", latencyP50=").append(getQueryLatencyP50Micros())
+                .append(", latencyP99=").append(getQueryLatencyP99Micros())
+                .append(", latencyMax=").append(getQueryLatencyMaxMicros())
+                .append(", resultSizeP50=").append(getResultSizeP50())
+                .append(", resultSizeP99=").append(getResultSizeP99())
+                .append(", tasksForked=").append(getTasksForked())
+                .append(", steals=").append(getStealCount());
+        for (Map.Entry<SearchPhase, Histogram> phase : phases.entrySet()) {
+            Histogram histogram = phase.getValue();
+            if (histogram.getCount() > 0) {
+                summary.append(", ").append(phase.getKey().name().toLowerCase())
+                        .append("=").append(histogram.getCount())
+                        .append("x p50 ").append(micros(histogram.getPercentile(P50)))
+                        .append(" p99 ").append(micros(histogram.getPercentile(P99)));
+            }
+        }
+        return summary.append("]").toString();
+    }
+}
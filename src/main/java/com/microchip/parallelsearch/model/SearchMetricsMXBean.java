@@ -0,0 +1,97 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.Map;
+
+/**
+ * The SearchMetricsMXBean interface exposes the SearchMetrics of a search engine through JMX,
+ * so they can be read with JConsole, VisualVM or any other JMX client while the application runs.
+ * Durations are reported in microseconds.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public interface SearchMetricsMXBean {
+
+    /**
+     * Gets the number of completed queries.
+     *
+     * @return The query count.
+     */
+    long getQueryCount();
+
+    /**
+     * Gets the median query latency.
+     *
+     * @return The 50th percentile of the query latency in microseconds.
+     */
+    long getQueryLatencyP50Micros();
+
+    /**
+     * Gets the tail query latency.
+     *
+     * @return The 99th percentile of the query latency in microseconds.
+     */
+    long getQueryLatencyP99Micros();
+
+    /**
+     * Gets the longest query latency.
+     *
+     * @return The maximum query latency in microseconds.
+     */
+    long getQueryLatencyMaxMicros();
+
+    /**
+     * Gets the median duration of every search phase.
+     *
+     * @return The 50th percentile of the duration of each phase in microseconds, by phase name.
+     */
+    Map<String, Long> getPhaseP50Micros();
+
+    /**
+     * Gets the tail duration of every search phase.
+     *
+     * @return The 99th percentile of the duration of each phase in microseconds, by phase name.
+     */
+    Map<String, Long> getPhaseP99Micros();
+
+    /**
+     * Gets the number of times every search phase has run.
+     *
+     * @return The count of each phase, by phase name.
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * Gets the number of fork/join subtasks forked by bisected scans.
+     *
+     * @return The number of forked tasks.
+     */
+    long getTasksForked();
+
+    /**
+     * Gets the number of tasks stolen between the workers of the fork/join pools of the engine.
+     *
+     * @return The steal count.
+     */
+    long getStealCount();
+
+    /**
+     * Gets the median number of matches of a query.
+     *
+     * @return The 50th percentile of the result size.
+     */
+    long getResultSizeP50();
+
+    /**
+     * Gets the tail number of matches of a query.
+     *
+     * @return The 99th percentile of the result size.
+     */
+    long getResultSizeP99();
+
+    /**
+     * Gets the total number of matches of all queries.
+     *
+     * @return The sum of the result sizes.
+     */
+    long getTotalResults();
+}
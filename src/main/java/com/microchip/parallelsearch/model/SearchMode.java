@@ -0,0 +1,22 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The SearchMode enum selects how the InMemoryParallelSearchEngine resolves a query.
+ * INDEX answers the query with a single lookup in the precomputed SubstringIndex,
+ * SCAN runs the parallel fork/join scan over all combinations.
+ * Both modes return the same matches, which allows comparing them directly.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum SearchMode {
+
+    /**
+     * Resolve the query through the precomputed substring index.
+     */
+    INDEX,
+
+    /**
+     * Resolve the query by scanning all combinations in parallel.
+     */
+    SCAN
+}
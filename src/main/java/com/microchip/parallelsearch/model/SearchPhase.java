@@ -0,0 +1,39 @@
+package com.microchip.parallelsearch.model;
+
+/**
+ * The SearchPhase enum names the phases of a search whose durations are recorded by the SearchMetrics.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public enum SearchPhase {
+
+    /**
+     * Answering a query from the result cache or the substring index.
+     */
+    LOOKUP,
+
+    /**
+     * Cutting the corpus into the partitions of a parallel scan.
+     */
+    PARTITION,
+
+    /**
+     * Running the partitions of a parallel scan, until the last one has finished.
+     */
+    SCAN,
+
+    /**
+     * Merging the matches of the partitions into the result, in corpus order.
+     */
+    MERGE,
+
+    /**
+     * Delivering the batches of a streaming search to its subscriber.
+     */
+    PUBLISH,
+
+    /**
+     * Saving a result to the output file.
+     */
+    PERSIST
+}
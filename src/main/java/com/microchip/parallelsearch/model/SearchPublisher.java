@@ -0,0 +1,236 @@
+package com.microchip.parallelsearch.model;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * The SearchPublisher class publishes the matches of a streaming search as ResultBatch items.
+ * The search is split into partitions which start running on the executor when the subscriber first requests items.
+ * Only a window of partitions ahead of the next one to deliver is submitted at a time, so a slow subscriber holds back
+ * the search instead of piling up the matches of completed partitions.
+ * Completed partitions are delivered in partition order as soon as all earlier ones have been delivered and the
+ * subscriber has demand; partitions without matches are skipped. Cancelling the subscription stops all partitions
+ * that have not started scanning yet. If the executor rejects a partition, or the subscriber throws from onNext,
+ * the subscription is cancelled and the subscriber receives the exception through onError.
+ * A publisher runs its search once and accepts a single subscriber. If a result consumer is given, it receives
+ * the complete result of a search which ran to completion, right before the subscriber is completed.
+ * A search which runs to completion is recorded in the SearchMetrics, with the time spent delivering its batches
+ * as its publish phase.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class SearchPublisher implements Flow.Publisher<ResultBatch> {
+
+    private static final int[] DELIVERED = new int[0]; // stands in for the matches of a delivered partition
+
+    private final Corpus corpus;
+    private final SearchMetrics metrics;
+    private final Executor executor;
+    private final int partitionCount;
+    private final int window;
+    private final IntFunction<int[]> partition; // computes the ascending ordinals of the matches of a partition
+    private final Consumer<int[]> resultConsumer;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructs a publisher for a search.
+     *
+     * @param corpus         The corpus searched, which decodes the matches of the batches.
+     * @param metrics        The metrics recording the search.
+     * @param executor       The executor running the partitions.
+     * @param partitionCount The number of partitions of the search.
+     * @param window         The number of partitions submitted ahead of the next one to deliver.
+     * @param partition      The function computing the matches of the partition with a given index.
+     * @param resultConsumer The consumer of the complete result, or null.
+     * @throws IllegalArgumentException if the window is not positive.
+     */
+    SearchPublisher(Corpus corpus, SearchMetrics metrics, Executor executor, int partitionCount, int window,
+                    IntFunction<int[]> partition, Consumer<int[]> resultConsumer) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.corpus = corpus;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.partitionCount = partitionCount;
+        this.window = window;
+        this.partition = partition;
+        this.resultConsumer = resultConsumer;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ResultBatch> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    // The subscription is already terminated
+                }
+
+                @Override
+                public void cancel() {
+                    // The subscription is already terminated
+                }
+            });
+            subscriber.onError(new IllegalStateException("A search publisher accepts a single subscriber"));
+            return;
+        }
+        SearchSubscription subscription = new SearchSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * The subscription collecting completed partitions and delivering them in order.
+     * Delivery and submission are serialized through a work-in-progress counter, so the subscriber is never called
+     * concurrently. Without a result consumer, delivered partitions are released once the subscriber has them.
+     */
+    private final class SearchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ResultBatch> subscriber;
+        private final AtomicReferenceArray<int[]> completed;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private int nextPartition; // only accessed while draining
+        private int submitted;     // only accessed while draining
+        private int matchCount;    // only accessed while draining
+        private long publishNanos; // only accessed while draining
+        private volatile long startNanos;
+
+        SearchSubscription(Flow.Subscriber<? super ResultBatch> subscriber) {
+            this.subscriber = subscriber;
+            this.completed = new AtomicReferenceArray<>(partitionCount);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested items must be positive: " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                if (started.compareAndSet(false, true)) {
+                    startNanos = System.nanoTime();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Submits the partitions of the window ahead of the next partition to deliver. Called while draining.
+         */
+        private void submit() {
+            try {
+                while (submitted < partitionCount && submitted - nextPartition < window && !cancelled) {
+                    int partitionIndex = submitted++;
+                    executor.execute(() -> run(partitionIndex));
+                }
+            } catch (RejectedExecutionException rejectedExecutionException) {
+                error = rejectedExecutionException;
+            }
+        }
+
+        private void run(int partitionIndex) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                completed.set(partitionIndex, partition.apply(partitionIndex));
+            } catch (RuntimeException | Error exception) {
+                error = exception;
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!cancelled) {
+                    if (error != null) {
+                        cancelled = true;
+                        subscriber.onError(error);
+                        break;
+                    }
+                    if (nextPartition == partitionCount) {
+                        cancelled = true;
+                        metrics.recordPhase(SearchPhase.PUBLISH, publishNanos);
+                        metrics.recordQuery(System.nanoTime() - startNanos, matchCount);
+                        if (resultConsumer != null) {
+                            resultConsumer.accept(concatenate());
+                        }
+                        subscriber.onComplete();
+                        break;
+                    }
+                    submit();
+                    if (error != null) {
+                        continue;
+                    }
+                    int[] ordinals = completed.get(nextPartition);
+                    if (ordinals == null) {
+                        break;
+                    }
+                    if (ordinals.length > 0) {
+                        if (demand.get() == 0) {
+                            break;
+                        }
+                        if (demand.get() != Long.MAX_VALUE) {
+                            demand.decrementAndGet();
+                        }
+                        release(nextPartition++);
+                        matchCount += ordinals.length;
+                        long publishStart = System.nanoTime();
+                        try {
+                            subscriber.onNext(new ResultBatch(corpus, ordinals));
+                        } catch (RuntimeException | Error exception) {
+                            error = exception;
+                        }
+                        publishNanos += System.nanoTime() - publishStart;
+                    } else {
+                        nextPartition++;
+                    }
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void release(int partitionIndex) {
+            if (resultConsumer == null) {
+                completed.lazySet(partitionIndex, DELIVERED);
+            }
+        }
+
+        private int[] concatenate() {
+            int count = 0;
+            for (int index = 0; index < partitionCount; index++) {
+                count += completed.get(index).length;
+            }
+            int[] ordinals = new int[count];
+            int position = 0;
+            for (int index = 0; index < partitionCount; index++) {
+                int[] partitionOrdinals = completed.get(index);
+                System.arraycopy(partitionOrdinals, 0, ordinals, position, partitionOrdinals.length);
+                position += partitionOrdinals.length;
+            }
+            return ordinals;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.microchip.parallelsearch.model;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The SearchResult class holds the outcome of one search: the matching combinations, their count and the execution time.
+ * Matches are kept as ordinals into the searched Corpus in ascending order; they are decoded into Strings
+ * only when they are read through getMatches().
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class SearchResult {
+
+    private final Corpus corpus;
+    private final String searchText;
+    private final SearchMode searchMode;
+    private final int[] ordinals;
+    private final int totalCount;
+    private final Duration executionTime;
+
+    /**
+     * Constructs a search result.
+     *
+     * @param corpus        The corpus the ordinals refer to.
+     * @param searchText    The search text the result was computed for.
+     * @param searchMode    The mode the search was resolved with.
+     * @param ordinals      The ascending ordinals of the matching combinations, owned by the result.
+     * @param executionTime The time the search took.
+     */
+    SearchResult(Corpus corpus, String searchText, SearchMode searchMode, int[] ordinals, Duration executionTime) {
+        this(corpus, searchText, searchMode, ordinals, ordinals.length, executionTime);
+    }
+
+    /**
+     * Constructs a search result which holds only some of the matches of the search.
+     *
+     * @param corpus        The corpus the ordinals refer to.
+     * @param searchText    The search text the result was computed for.
+     * @param searchMode    The mode the search was resolved with.
+     * @param ordinals      The ascending ordinals of the matching combinations held, owned by the result.
+     * @param totalCount    The number of all matching combinations, or -1 if they were not counted.
+     * @param executionTime The time the search took.
+     */
+    SearchResult(Corpus corpus, String searchText, SearchMode searchMode, int[] ordinals, int totalCount, Duration executionTime) {
+        this.corpus = corpus;
+        this.searchText = searchText;
+        this.searchMode = searchMode;
+        this.ordinals = ordinals;
+        this.totalCount = totalCount;
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * Gets the search text.
+     *
+     * @return The search text the result was computed for.
+     */
+    public String getSearchText() {
+        return searchText;
+    }
+
+    /**
+     * Gets the search mode.
+     *
+     * @return The mode the search was resolved with.
+     */
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    /**
+     * Gets the number of matching combinations.
+     *
+     * @return The number of matches.
+     */
+    public int getCount() {
+        return ordinals.length;
+    }
+
+    /**
+     * Gets the number of all matching combinations, which exceeds getCount() when only the first matches were searched.
+     *
+     * @return The number of all matches, or -1 if only the first matches were searched and they were not counted.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the matching combinations in corpus order, as a read-only list which decodes each combination when it is accessed.
+     *
+     * @return The matching combinations.
+     */
+    public List<String> getMatches() {
+        return new OrdinalList(corpus, ordinals);
+    }
+
+    /**
+     * Gets a copy of the ordinals of the matching combinations.
+     *
+     * @return The ascending ordinals of the matches.
+     */
+    public int[] getOrdinals() {
+        return ordinals.clone();
+    }
+
+    /**
+     * Gets the execution time.
+     *
+     * @return The time the search took.
+     */
+    public Duration getExecutionTime() {
+        return executionTime;
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 
 /**
  * The StringDataWriter class responsible for writing string data to JSON format.
+ * It writes synchronously on the calling thread; the AsyncResultWriter saves search results in the background.
  *
  * @author Ashish Kumar Mahuri
  */
@@ -19,6 +20,9 @@ public class StringDataWriter {
 
     private static final Logger logger = LogManager.getLogger(StringDataWriter.class);
 
+    // ObjectMapper is thread-safe once configured, so one instance is reused for every save
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     /**
      * Saves the list of strings in JSON format to the specified file.
      *
@@ -28,8 +32,6 @@ public class StringDataWriter {
     public static void saveStringsInJSON(List<String> strings, String filePath) {
         try {
             logger.info("Entering into: saveStringInJSON()");
-            ObjectMapper objectMapper = new ObjectMapper();
-
             // Write the list of strings to JSON file using the ObjectMapper
             objectMapper.writeValue(new File(filePath), strings);
 
@@ -0,0 +1,288 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The SubstringIndex class is an inverted index from every 1-4 letter substring to the entries of a corpus containing it.
+ * Each substring is encoded into an integer key (its length selects a key range, its letters a base-26 value
+ * inside that range) and the posting lists are stored back to back in a single int array, ordered by key.
+ * Posting lists hold entry ordinals in ascending order, so a lookup returns the matches in corpus order.
+ * Substrings holding a character other than a letter are not indexed, so only 1-4 letter search texts can be looked up.
+ * The posting lists are held in IntBuffers, either wrapping the arrays of a freshly built index or mapped straight
+ * from a CorpusSnapshot file, so a saved index is searched without being read into the heap first.
+ * The index over the default combinations is built once and shared by every search engine instance.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class SubstringIndex {
+
+    private static final Logger logger = LogManager.getLogger(SubstringIndex.class);
+
+    /**
+     * The maximum length of an indexed substring.
+     */
+    public static final int MAX_KEY_LENGTH = 4;
+
+    private static final int ALPHABET_SIZE = 26;
+
+    // First key of each substring length, KEY_OFFSETS[length] .. KEY_OFFSETS[length + 1] - 1
+    private static final int[] KEY_OFFSETS = {0, 0, 26, 26 + 676, 26 + 676 + 17576, 26 + 676 + 17576 + 456976};
+
+    /**
+     * The number of distinct substring keys.
+     */
+    static final int KEY_COUNT = KEY_OFFSETS[MAX_KEY_LENGTH + 1];
+
+    private static final int MAX_POSTINGS = Integer.MAX_VALUE - 8;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final IntBuffer postingOffsets; // postings of key k are postings[postingOffsets[k] .. postingOffsets[k + 1]]
+    private final IntBuffer postings;
+
+    /**
+     * Constructs an index over the given posting lists.
+     *
+     * @param postingOffsets The offset of the posting list of every key, followed by the total number of postings.
+     * @param postings       The posting lists of all keys, back to back.
+     * @throws IllegalArgumentException if the offsets do not cover every key or do not fit the postings.
+     */
+    SubstringIndex(IntBuffer postingOffsets, IntBuffer postings) {
+        if (postingOffsets.capacity() != KEY_COUNT + 1 || postingOffsets.get(KEY_COUNT) != postings.capacity()) {
+            throw new IllegalArgumentException("Invalid posting lists for " + KEY_COUNT + " keys");
+        }
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Gets the shared index over all combinations, building it on first use.
+     *
+     * @return The substring index of Combinations.STORE.
+     */
+    public static SubstringIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Builds the substring index for the given corpus.
+     * The build runs in two passes: the first counts the posting list sizes, the second fills them in.
+     * A substring occurring several times in one entry is posted only once for it.
+     *
+     * @param corpus The corpus to index.
+     * @return The built substring index.
+     * @throws IllegalArgumentException if the postings of the corpus do not fit into a single array.
+     */
+    public static SubstringIndex build(Corpus corpus) {
+        logger.info("Entering into: build()");
+        try {
+            int keyCount = KEY_COUNT;
+            int size = corpus.size();
+            int[] keys = new int[maxKeys(corpus.getMaxLength())];
+
+            // First pass: count the postings of every key
+            long[] postingCounts = new long[keyCount + 1];
+            int[] lastOrdinal = new int[keyCount];
+            Arrays.fill(lastOrdinal, -1);
+            corpus.forEach(0, size, (ordinal, letters, offset, length) -> {
+                int keyCountForOrdinal = substringKeys(letters, offset, length, keys);
+                for (int k = 0; k < keyCountForOrdinal; k++) {
+                    int key = keys[k];
+                    if (lastOrdinal[key] != ordinal) {
+                        lastOrdinal[key] = ordinal;
+                        postingCounts[key + 1]++;
+                    }
+                }
+            });
+            int[] postingOffsets = new int[keyCount + 1];
+            for (int key = 0; key < keyCount; key++) {
+                postingCounts[key + 1] += postingCounts[key];
+                if (postingCounts[key + 1] > MAX_POSTINGS) {
+                    throw new IllegalArgumentException("Corpus is too large to index: " + corpus);
+                }
+                postingOffsets[key + 1] = (int) postingCounts[key + 1];
+            }
+
+            // Second pass: fill the postings, ordinals are visited in ascending order so every list ends up sorted
+            int[] postings = new int[postingOffsets[keyCount]];
+            int[] cursor = Arrays.copyOf(postingOffsets, keyCount);
+            corpus.forEach(0, size, (ordinal, letters, offset, length) -> {
+                int keyCountForOrdinal = substringKeys(letters, offset, length, keys);
+                for (int k = 0; k < keyCountForOrdinal; k++) {
+                    int key = keys[k];
+                    int position = cursor[key];
+                    if (position == postingOffsets[key] || postings[position - 1] != ordinal) {
+                        postings[position] = ordinal;
+                        cursor[key] = position + 1;
+                    }
+                }
+            });
+            logger.log(Level.INFO, "Substring index built with {} postings", postings.length);
+            return new SubstringIndex(IntBuffer.wrap(postingOffsets), IntBuffer.wrap(postings));
+        } finally {
+            logger.info("Exiting from: build()");
+        }
+    }
+
+    /**
+     * Looks up the ordinals of all combinations containing the given text.
+     * The text is matched case-insensitively; text that cannot occur in any combination yields no ordinals.
+     *
+     * @param searchText The text to look up.
+     * @return The ascending ordinals of the matching combinations.
+     */
+    public int[] lookup(String searchText) {
+        int key = key(searchText);
+        if (key < 0) {
+            return EMPTY;
+        }
+        int from = postingOffsets.get(key);
+        int[] ordinals = new int[postingOffsets.get(key + 1) - from];
+        postings.get(from, ordinals);
+        return ordinals;
+    }
+
+    /**
+     * Looks up the ordinals of the first combinations containing the given text, copying no more than the limit.
+     *
+     * @param searchText The text to look up.
+     * @param limit      The maximum number of ordinals to return.
+     * @return The smallest ascending ordinals of the matching combinations, at most limit of them.
+     */
+    public int[] lookup(String searchText, int limit) {
+        int key = key(searchText);
+        if (key < 0 || limit <= 0) {
+            return EMPTY;
+        }
+        int from = postingOffsets.get(key);
+        int[] ordinals = new int[Math.min(limit, postingOffsets.get(key + 1) - from)];
+        postings.get(from, ordinals);
+        return ordinals;
+    }
+
+    /**
+     * Counts the combinations containing the given text without copying their ordinals.
+     *
+     * @param searchText The text to look up.
+     * @return The number of matching combinations.
+     */
+    public int count(String searchText) {
+        int key = key(searchText);
+        return key < 0 ? 0 : postingOffsets.get(key + 1) - postingOffsets.get(key);
+    }
+
+    /**
+     * Gets the total number of postings.
+     *
+     * @return The number of ordinals in all posting lists.
+     */
+    public int getPostingCount() {
+        return postings.capacity();
+    }
+
+    /**
+     * Gets the offsets of the posting lists, as a read-only view.
+     *
+     * @return The offset of the posting list of every key, followed by the total number of postings.
+     */
+    IntBuffer postingOffsets() {
+        return postingOffsets.asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the posting lists of all keys back to back, as a read-only view.
+     *
+     * @return The postings.
+     */
+    IntBuffer postings() {
+        return postings.asReadOnlyBuffer();
+    }
+
+    /**
+     * Encodes the given text into its index key.
+     *
+     * @param text The text to encode.
+     * @return The key, or -1 if the text is not a 1-4 letter string.
+     */
+    static int key(String text) {
+        int length = text.length();
+        if (length == 0 || length > MAX_KEY_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int letter = Character.toUpperCase(text.charAt(i)) - 'A';
+            if (letter < 0 || letter >= ALPHABET_SIZE) {
+                return -1;
+            }
+            value = value * ALPHABET_SIZE + letter;
+        }
+        return KEY_OFFSETS[length] + value;
+    }
+
+    /**
+     * Computes the maximum number of substring keys of an entry.
+     *
+     * @param maxLength The length of the longest entry.
+     * @return The size of a key array large enough for any entry.
+     */
+    static int maxKeys(int maxLength) {
+        return Math.max(1, maxLength * MAX_KEY_LENGTH);
+    }
+
+    /**
+     * Writes the keys of every substring of the given entry into the keys array.
+     *
+     * @param letters The array holding the entry.
+     * @param offset  The offset of the entry to split into substrings.
+     * @param length  The number of characters in the entry.
+     * @param keys    The array receiving the keys, of at least maxKeys(length) elements.
+     * @return The number of keys written.
+     */
+    static int substringKeys(byte[] letters, int offset, int length, int[] keys) {
+        return substringKeys(letters, offset, length, keys, -1);
+    }
+
+    /**
+     * Writes the keys of the substrings of the given lengths of the given entry into the keys array.
+     * A substring ends at the first character which is not a letter.
+     *
+     * @param letters The array holding the entry.
+     * @param offset  The offset of the entry to split into substrings.
+     * @param length  The number of characters in the entry.
+     * @param keys    The array receiving the keys, of at least maxKeys(length) elements.
+     * @param lengths The substring lengths to write, bit l set for length l.
+     * @return The number of keys written.
+     */
+    static int substringKeys(byte[] letters, int offset, int length, int[] keys, int lengths) {
+        int end = offset + length;
+        int count = 0;
+        for (int from = offset; from < end; from++) {
+            int value = 0;
+            for (int to = from, last = Math.min(end, from + MAX_KEY_LENGTH); to < last; to++) {
+                int letter = letters[to] - 'A';
+                if (letter < 0 || letter >= ALPHABET_SIZE) {
+                    break;
+                }
+                value = value * ALPHABET_SIZE + letter;
+                int keyLength = to - from + 1;
+                if ((lengths & 1 << keyLength) != 0) {
+                    keys[count++] = KEY_OFFSETS[keyLength] + value;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lazily builds the shared index the first time it is requested.
+     */
+    private static final class Holder {
+        private static final SubstringIndex INSTANCE = build(Combinations.STORE);
+    }
+}
@@ -0,0 +1,142 @@
+package com.microchip.parallelsearch.model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorScanner class matches a MatchKernel against the packed 4-letter combinations of a CombinationStore
+ * with the Java Vector API, a whole vector of combinations per instruction.
+ * The bytes of a vector of combinations are loaded at once and reinterpreted as one int lane per combination,
+ * in the native little-endian order, so the first letter of a combination is the low byte of its lane.
+ * Every window of the search text length is shifted down and masked in all lanes at once and compared with the
+ * search letters; the lanes whose comparison holds form a mask whose set bits are turned into the ordinals of the matches.
+ * A count only adds up the number of set lanes of every mask, without collecting any ordinal.
+ * The entries after the last whole vector are matched with the scalar kernel.
+ * This is the only class using the incubating jdk.incubator.vector module, and it must only be loaded once
+ * ScanBackend.VECTOR has been checked to be available.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+final class VectorScanner {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, INTS.vectorShape());
+
+    private static final int WORD_LENGTH = Integer.BYTES;
+
+    private VectorScanner() {
+    }
+
+    /**
+     * Checks whether a scan of the given corpus with the given matcher can be vectorized.
+     *
+     * @param corpus  The corpus to scan.
+     * @param matcher The compiled query.
+     * @return true if the corpus is a store of 4-letter combinations and the matcher a match kernel.
+     */
+    static boolean supports(Corpus corpus, CombinationMatcher matcher) {
+        return corpus instanceof CombinationStore store && store.getCombinationLength() == WORD_LENGTH
+                && matcher instanceof MatchKernel;
+    }
+
+    /**
+     * Scans a range of combinations of a store of 4-letter combinations with the given kernel.
+     *
+     * @param store   The store to scan.
+     * @param kernel  The compiled search text.
+     * @param start   The first ordinal of the range.
+     * @param end     The ordinal after the last one of the range.
+     * @param matches The buffer the ordinals of the matching combinations are appended to, in ascending order.
+     */
+    static void scanRange(CombinationStore store, MatchKernel kernel, int start, int end, OrdinalBuffer matches) {
+        int length = kernel.length();
+        if (kernel.matchesNothing() || length > WORD_LENGTH) {
+            return;
+        }
+        byte[] letters = store.letters();
+        int pattern = pattern(kernel);
+        int mask = length == WORD_LENGTH ? -1 : (1 << length * Byte.SIZE) - 1;
+        int windows = WORD_LENGTH - length + 1;
+        int lanes = INTS.length();
+        int ordinal = start;
+        for (int vectorEnd = end - lanes; ordinal <= vectorEnd; ordinal += lanes) {
+            // Append the ordinal of every lane whose combination contains the search text
+            for (long bits = match(letters, ordinal, pattern, mask, windows).toLong(); bits != 0; bits &= bits - 1) {
+                matches.add(ordinal + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        for (; ordinal < end; ordinal++) {
+            if (kernel.matches(letters, ordinal * WORD_LENGTH, WORD_LENGTH)) {
+                matches.add(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Counts the combinations of a range of a store of 4-letter combinations which contain the search text of the given kernel.
+     *
+     * @param store  The store to scan.
+     * @param kernel The compiled search text.
+     * @param start  The first ordinal of the range.
+     * @param end    The ordinal after the last one of the range.
+     * @return The number of matching combinations.
+     */
+    static int countRange(CombinationStore store, MatchKernel kernel, int start, int end) {
+        int length = kernel.length();
+        if (kernel.matchesNothing() || length > WORD_LENGTH) {
+            return 0;
+        }
+        byte[] letters = store.letters();
+        int pattern = pattern(kernel);
+        int mask = length == WORD_LENGTH ? -1 : (1 << length * Byte.SIZE) - 1;
+        int windows = WORD_LENGTH - length + 1;
+        int lanes = INTS.length();
+        int count = 0;
+        int ordinal = start;
+        for (int vectorEnd = end - lanes; ordinal <= vectorEnd; ordinal += lanes) {
+            count += match(letters, ordinal, pattern, mask, windows).trueCount();
+        }
+        for (; ordinal < end; ordinal++) {
+            if (kernel.matches(letters, ordinal * WORD_LENGTH, WORD_LENGTH)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Packs the search letters of a kernel little-endian, with the first letter in the low byte like the lanes.
+     *
+     * @param kernel The compiled search text of at most 4 letters.
+     * @return The packed search letters.
+     */
+    private static int pattern(MatchKernel kernel) {
+        int pattern = 0;
+        for (int i = kernel.length() - 1; i >= 0; i--) {
+            pattern = pattern << Byte.SIZE | kernel.letter(i);
+        }
+        return pattern;
+    }
+
+    /**
+     * Matches a vector of combinations.
+     *
+     * @param letters The packed letters of all combinations.
+     * @param ordinal The ordinal of the first combination of the vector.
+     * @param pattern The packed search letters.
+     * @param mask    The mask selecting the low bytes of a lane the search letters occupy.
+     * @param windows The number of windows of the search text length in a combination.
+     * @return The mask of the lanes whose combination contains the search text.
+     */
+    private static VectorMask<Integer> match(byte[] letters, int ordinal, int pattern, int mask, int windows) {
+        IntVector words = ByteVector.fromArray(BYTES, letters, ordinal * WORD_LENGTH).reinterpretAsInts();
+        VectorMask<Integer> found = words.and(mask).eq(pattern);
+        for (int window = 1; window < windows; window++) {
+            found = found.or(words.lanewise(VectorOperators.LSHR, window * Byte.SIZE).and(mask).eq(pattern));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,184 @@
+package com.microchip.parallelsearch.model;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * The WordListCorpus class is a corpus of words loaded from a text file with one word per line.
+ * The words are upper-cased and packed back to back into one byte array, with an array of offsets marking where each
+ * word starts, so a word list of hundreds of millions of entries costs its characters plus 4 bytes per word.
+ * The file is loaded in parallel: it is cut into segments at line boundaries, every segment counts its words,
+ * and then every segment copies its words to the position the counts of the preceding segments give it.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class WordListCorpus extends Corpus {
+
+    private static final Logger logger = LogManager.getLogger(WordListCorpus.class);
+
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final int MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
+
+    private final byte[] letters;
+    private final int[] offsets; // word i occupies letters[offsets[i] .. offsets[i + 1]]
+    private final int maxLength;
+
+    private WordListCorpus(byte[] letters, int[] offsets, int maxLength) {
+        this.letters = letters;
+        this.offsets = offsets;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Loads a word list. Empty lines are skipped and a carriage return before a line feed is dropped.
+     *
+     * @param path The text file holding one word per line.
+     * @return The corpus of the words, in file order.
+     * @throws IOException if the file cannot be read, is larger than 2 GB or holds a character that is not ASCII.
+     */
+    public static WordListCorpus load(Path path) throws IOException {
+        logger.info("Entering into: load()");
+        try {
+            if (Files.size(path) > MAX_FILE_SIZE) {
+                throw new IOException("Word list is larger than " + MAX_FILE_SIZE + " bytes: " + path);
+            }
+            byte[] text = Files.readAllBytes(path);
+
+            // Cut the text into segments which start right after a line feed
+            int segmentCount = Math.max(1, (int) (((long) text.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE));
+            int[] segmentStarts = new int[segmentCount + 1];
+            for (int segment = 1; segment < segmentCount; segment++) {
+                int start = Math.max(segment * SEGMENT_SIZE, segmentStarts[segment - 1]);
+                while (start < text.length && text[start - 1] != '\n') {
+                    start++;
+                }
+                segmentStarts[segment] = start;
+            }
+            segmentStarts[segmentCount] = text.length;
+
+            // First pass: count the words, characters and longest word of every segment
+            int[] wordCounts = new int[segmentCount + 1];
+            int[] letterCounts = new int[segmentCount + 1];
+            int[] maxLengths = new int[segmentCount];
+            IntStream.range(0, segmentCount).parallel().forEach(segment ->
+                    forEachWord(text, segmentStarts[segment], segmentStarts[segment + 1], (from, to) -> {
+                        wordCounts[segment + 1]++;
+                        letterCounts[segment + 1] += to - from;
+                        maxLengths[segment] = Math.max(maxLengths[segment], to - from);
+                    }));
+            int maxLength = 0;
+            for (int segment = 0; segment < segmentCount; segment++) {
+                wordCounts[segment + 1] += wordCounts[segment];
+                letterCounts[segment + 1] += letterCounts[segment];
+                maxLength = Math.max(maxLength, maxLengths[segment]);
+            }
+
+            // Second pass: copy the upper-cased words of every segment to their final position
+            int wordCount = wordCounts[segmentCount];
+            byte[] letters = new byte[letterCounts[segmentCount]];
+            int[] offsets = new int[wordCount + 1];
+            boolean[] nonAscii = new boolean[segmentCount];
+            IntStream.range(0, segmentCount).parallel().forEach(segment -> {
+                int[] word = {wordCounts[segment]};
+                int[] position = {letterCounts[segment]};
+                forEachWord(text, segmentStarts[segment], segmentStarts[segment + 1], (from, to) -> {
+                    offsets[word[0]++] = position[0];
+                    for (int i = from; i < to; i++) {
+                        byte character = text[i];
+                        nonAscii[segment] |= character < 0;
+                        letters[position[0]++] = character >= 'a' && character <= 'z' ? (byte) (character - 'a' + 'A') : character;
+                    }
+                });
+            });
+            offsets[wordCount] = letters.length;
+            for (boolean segmentNonAscii : nonAscii) {
+                if (segmentNonAscii) {
+                    throw new IOException("Word list holds a character that is not ASCII: " + path);
+                }
+            }
+
+            logger.log(Level.INFO, "Loaded {} words of at most {} characters from: {}", wordCount, maxLength, path);
+            return new WordListCorpus(letters, offsets, maxLength);
+        } finally {
+            logger.info("Exiting from: load()");
+        }
+    }
+
+    @Override
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public String get(int ordinal) {
+        return new String(letters, offsets[ordinal], offsets[ordinal + 1] - offsets[ordinal], StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    int getBytes(int ordinal, byte[] target) {
+        int length = offsets[ordinal + 1] - offsets[ordinal];
+        System.arraycopy(letters, offsets[ordinal], target, 0, length);
+        return length;
+    }
+
+    @Override
+    void scanRange(CombinationMatcher matcher, int start, int end, OrdinalBuffer matches) {
+        for (int i = start, offset = offsets[start]; i < end; i++) {
+            int next = offsets[i + 1];
+            if (matcher.matches(letters, offset, next - offset)) {
+                matches.add(i);
+            }
+            offset = next;
+        }
+    }
+
+    @Override
+    boolean matches(CombinationMatcher matcher, int ordinal) {
+        return matcher.matches(letters, offsets[ordinal], offsets[ordinal + 1] - offsets[ordinal]);
+    }
+
+    @Override
+    void forEach(int start, int end, EntryVisitor visitor) {
+        for (int i = start; i < end; i++) {
+            visitor.visit(i, letters, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+    }
+
+    /**
+     * Calls the consumer with the bounds of every non-empty line between two line starts.
+     */
+    private static void forEachWord(byte[] text, int start, int end, WordConsumer consumer) {
+        int lineStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text[i] == '\n') {
+                int lineEnd = i > lineStart && text[i - 1] == '\r' ? i - 1 : i;
+                if (lineEnd > lineStart) {
+                    consumer.accept(lineStart, lineEnd);
+                }
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WordConsumer {
+        void accept(int from, int to);
+    }
+
+    @Override
+    public String toString() {
+        return "WordListCorpus[size=" + size() + ", maxLength=" + maxLength + "]";
+    }
+}
@@ -0,0 +1,217 @@
+package com.microchip.parallelsearch.server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The SearchLoadGenerator class is a command-line tool measuring a running SearchServer under concurrent clients.
+ * Every client runs on its own virtual thread and sends its next search as soon as the previous one has been answered,
+ * cycling through the given queries. After a warm-up, the tool reports the throughput of the admitted searches,
+ * the number of searches rejected by admission control and the latency percentiles of the admitted searches.
+ * <p>
+ * Usage: SearchLoadGenerator [base-url] [clients] [seconds] [warm-up seconds] [query...]
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class SearchLoadGenerator {
+
+    private static final Logger logger = LogManager.getLogger(SearchLoadGenerator.class);
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:" + SearchServer.DEFAULT_PORT;
+    private static final int DEFAULT_CLIENTS = 16;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int DEFAULT_WARMUP_SECONDS = 2;
+    private static final List<String> DEFAULT_QUERIES = List.of("A", "AB", "ABC", "ZZ", "XYZ", "ABCD", "A?C");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final int clients;
+    private final List<String> queries;
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param baseUrl The base URL of the server, e.g. http://localhost:8080.
+     * @param clients The number of concurrent clients.
+     * @param queries The search texts the clients cycle through.
+     * @throws IllegalArgumentException if there are no clients or no queries.
+     */
+    public SearchLoadGenerator(String baseUrl, int clients, List<String> queries) {
+        if (clients <= 0 || queries.isEmpty()) {
+            throw new IllegalArgumentException("Invalid load: " + clients + " clients, " + queries.size() + " queries");
+        }
+        this.baseUrl = baseUrl;
+        this.clients = clients;
+        this.queries = List.copyOf(queries);
+    }
+
+    /**
+     * Runs the clients for the given time and collects what they measured.
+     *
+     * @param duration The time the clients send searches for.
+     * @return The combined measurements of all clients.
+     * @throws Exception if a client failed or the run was interrupted.
+     */
+    public Report run(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Report>> results = new ArrayList<>();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int firstQuery = client;
+                results.add(clientThreads.submit(() -> runClient(firstQuery, deadline)));
+            }
+        }
+        Report report = new Report(duration.toNanos());
+        for (Future<Report> result : results) {
+            report.add(result.get());
+        }
+        return report;
+    }
+
+    /**
+     * Sends searches one after the other until the deadline.
+     *
+     * @param firstQuery The index of the first query sent, so the clients do not all send the same query at once.
+     * @param deadline   The System.nanoTime() after which no search is sent.
+     * @return The measurements of this client.
+     * @throws IOException if a search cannot be sent.
+     * @throws InterruptedException if the client is interrupted.
+     */
+    private Report runClient(int firstQuery, long deadline) throws IOException, InterruptedException {
+        Report report = new Report(0);
+        for (int query = firstQuery; System.nanoTime() < deadline; query++) {
+            String searchText = queries.get(query % queries.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/search?limit=10&q="
+                    + URLEncoder.encode(searchText, StandardCharsets.UTF_8))).GET().build();
+            long start = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            report.record(response.statusCode(), System.nanoTime() - start);
+        }
+        return report;
+    }
+
+    /**
+     * The Report class holds the status counts and the latencies of the admitted searches of a run.
+     */
+    public static final class Report {
+
+        private final long durationNanos;
+        private long[] latencies = new long[1024];
+        private int admitted;
+        private int rejected;
+        private int failed;
+
+        private Report(long durationNanos) {
+            this.durationNanos = durationNanos;
+        }
+
+        private void record(int status, long latencyNanos) {
+            if (status == 200) {
+                if (admitted == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, admitted * 2);
+                }
+                latencies[admitted++] = latencyNanos;
+            } else if (status == 503) {
+                rejected++;
+            } else {
+                failed++;
+            }
+        }
+
+        private void add(Report other) {
+            latencies = Arrays.copyOf(latencies, admitted + other.admitted);
+            System.arraycopy(other.latencies, 0, latencies, admitted, other.admitted);
+            admitted += other.admitted;
+            rejected += other.rejected;
+            failed += other.failed;
+        }
+
+        /**
+         * Gets the number of searches answered with 200 OK.
+         *
+         * @return The admitted search count.
+         */
+        public int getAdmittedCount() {
+            return admitted;
+        }
+
+        /**
+         * Gets the number of searches rejected by admission control with 503 Service Unavailable.
+         *
+         * @return The rejected search count.
+         */
+        public int getRejectedCount() {
+            return rejected;
+        }
+
+        /**
+         * Gets the latency of an admitted search at the given percentile, with the nearest-rank method.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The latency in nanoseconds, or 0 if no search was admitted.
+         */
+        public long getLatencyNanos(double percentile) {
+            if (admitted == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, admitted);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * admitted);
+            return sorted[Math.max(0, Math.min(admitted, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                    "admitted=%d, rejected=%d, failed=%d, throughput=%.1f searches/s, latency",
+                    admitted, rejected, failed, admitted * 1e9 / durationNanos));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(Locale.ROOT, " p%s=%.3fms", percentile == (long) percentile
+                        ? String.valueOf((long) percentile) : String.valueOf(percentile), getLatencyNanos(percentile) / 1e6));
+            }
+            return report.append(String.format(Locale.ROOT, " max=%.3fms", getLatencyNanos(100) / 1e6)).toString();
+        }
+    }
+
+    /**
+     * Runs a warm-up, then the measured run, and prints the report of the measured run.
+     *
+     * @param args [base-url] [clients] [seconds] [warm-up seconds] [query...]
+     * @throws Exception if a client failed or the run was interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        logger.info("Entering into: main()");
+        try {
+            String baseUrl = args.length > 0 ? args[0] : DEFAULT_BASE_URL;
+            int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+            int seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+            int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_WARMUP_SECONDS;
+            List<String> queries = args.length > 4 ? List.of(args).subList(4, args.length) : DEFAULT_QUERIES;
+            SearchLoadGenerator loadGenerator = new SearchLoadGenerator(baseUrl, clients, queries);
+            if (warmupSeconds > 0) {
+                loadGenerator.run(Duration.ofSeconds(warmupSeconds));
+            }
+            Report report = loadGenerator.run(Duration.ofSeconds(seconds));
+            System.out.println(clients + " clients, " + seconds + "s against " + baseUrl + ": " + report);
+        } finally {
+            logger.info("Exiting from: main()");
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.microchip.parallelsearch.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchip.parallelsearch.exception.SearchException;
+import com.microchip.parallelsearch.model.InMemoryParallelSearchEngine;
+import com.microchip.parallelsearch.model.SearchResult;
+import com.microchip.parallelsearch.util.SearchEngineFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SearchServer class is the headless entry point of the application, serving searches over HTTP on localhost.
+ * Every request is handled on its own virtual thread, and all requests share a single InMemoryParallelSearchEngine,
+ * whose scans run on its own executor. In-flight searches are capped by a semaphore: a request which cannot get a permit
+ * within the admission timeout is rejected with 503 Service Unavailable instead of queueing more work behind a busy engine.
+ * The server answers GET /search?q=&lt;text&gt;&amp;limit=&lt;n&gt; with the match count, the search time and the first
+ * matches as JSON, and GET /metrics with the search metrics and the admission counters as text.
+ * A search never materializes more than the requested matches: the count and the first limit matches come from
+ * a single search, which scans every chunk of the corpus at most once. A limit above the configured maximum is
+ * rejected with 400 Bad Request, so no single request can build and serialize every match of the corpus.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public class SearchServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(SearchServer.class);
+
+    /**
+     * The system property holding the port the server listens on.
+     */
+    public static final String PORT_PROPERTY = "parallelsearch.server.port";
+
+    /**
+     * The system property holding the maximum number of searches running at the same time.
+     */
+    public static final String MAX_IN_FLIGHT_PROPERTY = "parallelsearch.server.maxInFlight";
+
+    /**
+     * The system property holding the time a request waits for a search permit before it is rejected, in milliseconds.
+     */
+    public static final String ADMISSION_TIMEOUT_PROPERTY = "parallelsearch.server.admissionTimeoutMillis";
+
+    /**
+     * The system property holding the largest number of matches a search request may ask for.
+     */
+    public static final String MAX_LIMIT_PROPERTY = "parallelsearch.server.maxLimit";
+
+    /**
+     * The port the server listens on if the port property is not set.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The time a request waits for a search permit if the admission timeout property is not set, in milliseconds.
+     */
+    public static final long DEFAULT_ADMISSION_TIMEOUT_MILLIS = 100;
+
+    /**
+     * The largest number of matches a search request may ask for if the maximum limit property is not set.
+     */
+    public static final int DEFAULT_MAX_LIMIT = 10_000;
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final InMemoryParallelSearchEngine searchEngine;
+    private final HttpServer httpServer;
+    private final ExecutorService requestExecutor;
+    private final Semaphore searchPermits;
+    private final int maxInFlight;
+    private final long admissionTimeoutMillis;
+    private final int maxLimit;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a server for the given engine, bound to the loopback address, and starts it.
+     *
+     * @param searchEngine           The engine shared by all requests.
+     * @param port                   The port to listen on, or 0 for any free port.
+     * @param maxInFlight            The maximum number of searches running at the same time.
+     * @param admissionTimeoutMillis The time a request waits for a search permit before it is rejected.
+     * @param maxLimit               The largest number of matches a search request may ask for.
+     * @throws IOException if the server cannot be bound.
+     * @throws IllegalArgumentException if the engine is null or the limits are not positive.
+     */
+    public SearchServer(InMemoryParallelSearchEngine searchEngine, int port, int maxInFlight, long admissionTimeoutMillis,
+                        int maxLimit) throws IOException {
+        logger.info("Entering into: SearchServer()");
+        try {
+            if (searchEngine == null) {
+                throw new IllegalArgumentException("Search engine cannot be null");
+            }
+            if (maxInFlight <= 0 || admissionTimeoutMillis < 0) {
+                throw new IllegalArgumentException("Invalid admission limits: " + maxInFlight + " in flight, " + admissionTimeoutMillis + "ms");
+            }
+            if (maxLimit < 0) {
+                throw new IllegalArgumentException("Maximum limit cannot be negative: " + maxLimit);
+            }
+            this.searchEngine = searchEngine;
+            this.maxInFlight = maxInFlight;
+            this.admissionTimeoutMillis = admissionTimeoutMillis;
+            this.maxLimit = maxLimit;
+            this.searchPermits = new Semaphore(maxInFlight, true);
+            this.requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            httpServer.setExecutor(requestExecutor);
+            httpServer.createContext("/search", this::handleSearch);
+            httpServer.createContext("/metrics", this::handleMetrics);
+            httpServer.start();
+            logger.info("Search server listening on {} with at most {} searches in flight", httpServer.getAddress(), maxInFlight);
+        } finally {
+            logger.info("Exiting from: SearchServer()");
+        }
+    }
+
+    /**
+     * Gets the address the server listens on.
+     *
+     * @return The bound address.
+     */
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Gets the number of requests admitted so far.
+     *
+     * @return The admitted request count.
+     */
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    /**
+     * Gets the number of requests rejected by admission control so far.
+     *
+     * @return The rejected request count.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Handles a search request: admits it, searches the engine and writes the result as JSON.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response cannot be written.
+     */
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Method not allowed");
+                return;
+            }
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String searchText = parameters.get("q");
+            int limit;
+            try {
+                limit = Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(Math.min(DEFAULT_LIMIT, maxLimit))));
+            } catch (NumberFormatException numberFormatException) {
+                limit = -1;
+            }
+            if (searchText == null || limit < 0) {
+                send(exchange, 400, "text/plain", "Expected /search?q=<text>&limit=<n>");
+                return;
+            }
+            if (limit > maxLimit) {
+                send(exchange, 400, "text/plain", "Limit cannot exceed " + maxLimit);
+                return;
+            }
+            if (!searchPermits.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, "text/plain", "Too many searches in flight");
+                return;
+            }
+            admitted.increment();
+            long start = System.nanoTime();
+            SearchResult searchResult;
+            try {
+                searchResult = searchEngine.countAndSearchFirst(searchText, limit);
+            } finally {
+                searchPermits.release();
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("query", searchText);
+            response.put("mode", searchResult.getSearchMode().name());
+            response.put("count", searchResult.getTotalCount());
+            response.put("executionMicros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            response.put("matches", searchResult.getMatches());
+            send(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+        } catch (SearchException searchException) {
+            String message = searchException.getCause() == null ? searchException.getMessage() : searchException.getCause().getMessage();
+            send(exchange, 400, "text/plain", "Search exception occurred: " + message);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, "text/plain", "Server is shutting down");
+        } catch (RuntimeException runtimeException) {
+            logger.error("Error occurred during search: {}", runtimeException.getMessage());
+            send(exchange, 500, "text/plain", "Error occurred during search: " + runtimeException.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Handles a metrics request, writing the search metrics and the admission counters as text.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response cannot be written.
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = searchEngine.getMetrics() + System.lineSeparator()
+                    + "admission[inFlight=" + (maxInFlight - searchPermits.availablePermits()) + "/" + maxInFlight
+                    + ", admitted=" + admitted.sum() + ", rejected=" + rejected.sum() + "]" + System.lineSeparator();
+            send(exchange, 200, "text/plain", body);
+        }
+    }
+
+    /**
+     * Writes a complete response.
+     *
+     * @param exchange    The request and response.
+     * @param status      The HTTP status code.
+     * @param contentType The content type of the body.
+     * @param body        The body.
+     * @throws IOException if the response cannot be written.
+     */
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    /**
+     * Parses the parameters of a raw query string.
+     *
+     * @param rawQuery The raw query string, or null.
+     * @return The decoded parameters; the first value wins if a parameter is repeated.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? parameter : parameter.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(name, value);
+        }
+        return parameters;
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for the requests in progress and closes the engine.
+     */
+    @Override
+    public void close() {
+        logger.info("Entering into: close()");
+        try {
+            httpServer.stop(STOP_DELAY_SECONDS);
+            requestExecutor.close();
+            searchEngine.close();
+        } finally {
+            logger.info("Exiting from: close()");
+        }
+    }
+
+    /**
+     * Starts the server with the engine configured by the same system properties as the application window,
+     * and stops it when the JVM shuts down.
+     *
+     * @param args the command-line arguments, which are not used
+     * @throws IOException if the corpus or the snapshot cannot be read or written, or the server cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        logger.info("launching the search server");
+        SearchServer searchServer = new SearchServer(SearchEngineFactory.createEngine(), Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT),
+                Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, 2 * Runtime.getRuntime().availableProcessors()),
+                Long.getLong(ADMISSION_TIMEOUT_PROPERTY, DEFAULT_ADMISSION_TIMEOUT_MILLIS),
+                Integer.getInteger(MAX_LIMIT_PROPERTY, DEFAULT_MAX_LIMIT));
+        Runtime.getRuntime().addShutdownHook(new Thread(searchServer::close, "search-server-shutdown"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.microchip.parallelsearch.util;
+
+import com.microchip.parallelsearch.model.Combinations;
+import com.microchip.parallelsearch.model.CombinatorialCorpus;
+import com.microchip.parallelsearch.model.Corpus;
+import com.microchip.parallelsearch.model.CorpusSnapshot;
+import com.microchip.parallelsearch.model.ExecutionMode;
+import com.microchip.parallelsearch.model.InMemoryParallelSearchEngine;
+import com.microchip.parallelsearch.model.PartitionPolicy;
+import com.microchip.parallelsearch.model.PartitionStrategy;
+import com.microchip.parallelsearch.model.ScanBackend;
+import com.microchip.parallelsearch.model.SearchMode;
+import com.microchip.parallelsearch.model.WordListCorpus;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The SearchEngineFactory class creates the search engine configured by the system properties.
+ * It is shared by the application window and the search server, so both entry points search the same corpus
+ * with the same search mode, execution mode, partition policy and scan backend.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+public final class SearchEngineFactory {
+
+    private static final Logger logger = LogManager.getLogger(SearchEngineFactory.class);
+
+    /**
+     * The system property selecting the corpus to search: unset for all 4-letter combinations,
+     * combinations:&lt;alphabet&gt;:&lt;length&gt; for all combinations of another alphabet and length,
+     * or words:&lt;path&gt; for a word list file with one word per line.
+     */
+    public static final String CORPUS_PROPERTY = "parallelsearch.corpus";
+
+    /**
+     * The system property holding the path of a corpus snapshot. If the file exists and was saved from the selected
+     * corpus, the corpus and index are mapped from it instead of being generated; otherwise the selected corpus is saved
+     * to it once it has been set up.
+     */
+    public static final String SNAPSHOT_PROPERTY = "parallelsearch.snapshot";
+
+    /**
+     * The system property selecting the search mode, either INDEX or SCAN.
+     * When it is unset, the default corpus is searched in index mode and any other corpus in scan mode.
+     */
+    public static final String SEARCH_MODE_PROPERTY = "parallelsearch.mode";
+
+    /**
+     * The system property selecting the execution mode, either FORK_JOIN or VIRTUAL_THREADS.
+     */
+    public static final String EXECUTION_MODE_PROPERTY = "parallelsearch.executor";
+
+    /**
+     * The system property selecting the scan backend, either SCALAR or VECTOR.
+     * The vector backend needs the JVM option --add-modules jdk.incubator.vector; without it the scalar backend is used.
+     */
+    public static final String SCAN_BACKEND_PROPERTY = "parallelsearch.scan";
+
+    /**
+     * The system property selecting the partition strategy, either BISECT or FLAT.
+     */
+    public static final String PARTITION_STRATEGY_PROPERTY = "parallelsearch.partition";
+
+    /**
+     * The system property holding the number of chunks per worker of a scan.
+     */
+    public static final String CHUNKS_PER_WORKER_PROPERTY = "parallelsearch.chunksPerWorker";
+
+    /**
+     * The system property holding the minimum time a chunk should take to scan, in nanoseconds.
+     * When it is set, the minimum chunk size is calibrated with a micro-probe at startup.
+     */
+    public static final String MIN_CHUNK_NANOS_PROPERTY = "parallelsearch.minChunkNanos";
+
+    private SearchEngineFactory() {
+    }
+
+    /**
+     * Creates the engine configured by the system properties.
+     * The corpus is mapped from the snapshot if it exists and its source matches the selected corpus. Otherwise the corpus
+     * is set up and, if a snapshot is set, saved to it, replacing a snapshot of another corpus or of an older word list.
+     *
+     * @return The configured engine.
+     * @throws IOException if the word list or the snapshot cannot be read, or the snapshot cannot be written.
+     * @throws IllegalArgumentException if a system property is malformed.
+     */
+    public static InMemoryParallelSearchEngine createEngine() throws IOException {
+        logger.info("Entering into: createEngine()");
+        try {
+            String corpus = System.getProperty(CORPUS_PROPERTY);
+            String snapshot = System.getProperty(SNAPSHOT_PROPERTY);
+            Path snapshotPath = snapshot == null || snapshot.isEmpty() ? null : Path.of(snapshot);
+            String source = snapshotPath == null ? null : describeCorpus(corpus);
+            CorpusSnapshot corpusSnapshot = snapshotPath != null && Files.exists(snapshotPath) ? CorpusSnapshot.open(snapshotPath) : null;
+            if (corpusSnapshot != null && !corpusSnapshot.getSource().equals(source)) {
+                logger.log(Level.WARN, "Snapshot {} was saved from {} instead of {} and is rebuilt",
+                        snapshotPath, corpusSnapshot.getSource().isEmpty() ? "an unknown corpus" : corpusSnapshot.getSource(), source);
+                corpusSnapshot = null;
+            }
+            InMemoryParallelSearchEngine searchEngine = corpusSnapshot != null
+                    ? new InMemoryParallelSearchEngine(corpusSnapshot)
+                    : new InMemoryParallelSearchEngine(createCorpus(corpus));
+            String searchMode = System.getProperty(SEARCH_MODE_PROPERTY);
+            if (searchMode != null) {
+                searchEngine.setSearchMode(SearchMode.valueOf(searchMode));
+            }
+            if (snapshotPath != null && corpusSnapshot == null) {
+                CorpusSnapshot.write(searchEngine.getCorpus(), searchEngine.getSubstringIndex(), source, snapshotPath);
+            }
+            searchEngine.setExecutionMode(ExecutionMode.valueOf(System.getProperty(EXECUTION_MODE_PROPERTY, ExecutionMode.FORK_JOIN.name())));
+            searchEngine.setPartitionPolicy(createPartitionPolicy(searchEngine.getCorpus()));
+            searchEngine.setScanBackend(ScanBackend.valueOf(System.getProperty(SCAN_BACKEND_PROPERTY, ScanBackend.SCALAR.name())));
+            return searchEngine;
+        } finally {
+            logger.info("Exiting from: createEngine()");
+        }
+    }
+
+    /**
+     * Creates the corpus selected by the corpus system property.
+     *
+     * @param corpus The value of the corpus system property, or null.
+     * @return The corpus to search.
+     * @throws IOException if the word list cannot be read.
+     * @throws IllegalArgumentException if the corpus system property is malformed.
+     */
+    private static Corpus createCorpus(String corpus) throws IOException {
+        if (corpus == null || corpus.isEmpty()) {
+            return Combinations.STORE;
+        }
+        String[] parts = corpus.split(":", 2);
+        if (parts.length == 2 && parts[0].equals("words")) {
+            return WordListCorpus.load(Path.of(parts[1]));
+        }
+        if (parts.length == 2 && parts[0].equals("combinations")) {
+            int separator = parts[1].lastIndexOf(':');
+            if (separator > 0) {
+                return new CombinatorialCorpus(parts[1].substring(0, separator), Integer.parseInt(parts[1].substring(separator + 1)));
+            }
+        }
+        throw new IllegalArgumentException("Invalid corpus: " + corpus);
+    }
+
+    /**
+     * Describes the corpus selected by the corpus system property, as the source of its snapshot.
+     * Combinations are described by their upper-cased alphabet and length, and a word list by its absolute path,
+     * size and modification time, so editing the word list makes its snapshot stale.
+     *
+     * @param corpus The value of the corpus system property, or null.
+     * @return The description of the corpus.
+     * @throws IOException if the word list cannot be read.
+     */
+    private static String describeCorpus(String corpus) throws IOException {
+        if (corpus == null || corpus.isEmpty()) {
+            return "combinations:" + Combinations.ALPHABET + ":" + Combinations.COMBINATION_LENGTH;
+        }
+        String[] parts = corpus.split(":", 2);
+        if (parts.length == 2 && parts[0].equals("words")) {
+            Path path = Path.of(parts[1]).toAbsolutePath();
+            return "words:" + path + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        }
+        if (parts.length == 2 && parts[0].equals("combinations")) {
+            return "combinations:" + parts[1].toUpperCase(Locale.ROOT);
+        }
+        return corpus;
+    }
+
+    /**
+     * Creates the partition policy from the partition system properties.
+     *
+     * @param corpus The corpus the policy partitions, probed when the minimum chunk size is calibrated.
+     * @return The configured partition policy.
+     */
+    private static PartitionPolicy createPartitionPolicy(Corpus corpus) {
+        PartitionStrategy strategy = PartitionStrategy.valueOf(System.getProperty(PARTITION_STRATEGY_PROPERTY, PartitionStrategy.BISECT.name()));
+        int chunksPerWorker = Integer.getInteger(CHUNKS_PER_WORKER_PROPERTY, PartitionPolicy.DEFAULT_CHUNKS_PER_WORKER);
+        Long minChunkNanos = Long.getLong(MIN_CHUNK_NANOS_PROPERTY);
+        if (minChunkNanos != null) {
+            return PartitionPolicy.calibrate(corpus, strategy, chunksPerWorker, minChunkNanos);
+        }
+        return new PartitionPolicy(strategy, chunksPerWorker, PartitionPolicy.DEFAULT_MIN_CHUNK_SIZE);
+    }
+}
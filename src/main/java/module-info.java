@@ -3,10 +3,17 @@ module com.microchip.parallelsearch.inmemoryparallelsearch {
     requires javafx.fxml;
     requires com.fasterxml.jackson.databind;
     requires org.apache.logging.log4j;
+    requires java.management;
+    requires static jdk.incubator.vector;
+    requires jdk.httpserver;
+    requires java.net.http;
 
 
     opens com.microchip.parallelsearch to javafx.fxml;
     exports com.microchip.parallelsearch;
     exports com.microchip.parallelsearch.controller;
+    exports com.microchip.parallelsearch.exception;
+    exports com.microchip.parallelsearch.model;
+    exports com.microchip.parallelsearch.server;
     opens com.microchip.parallelsearch.controller to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.microchip.parallelsearch.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The AsyncResultWriterTest class checks the files written in every output format, and that results submitted while
+ * the background thread is busy are coalesced into a single write of the latest one.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class AsyncResultWriterTest {
+
+    private static final Corpus CORPUS = new CombinatorialCorpus("AB", 2);
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void jsonIsAnArrayOfEntries() throws IOException {
+        Path file = temporaryDirectory.resolve("result.json");
+        try (AsyncResultWriter resultWriter = new AsyncResultWriter(file, OutputFormat.JSON, CORPUS)) {
+            resultWriter.submit(new int[]{0, 1, 3});
+        }
+        assertEquals("[\"AA\",\"AB\",\"BB\"]", Files.readString(file));
+    }
+
+    @Test
+    void ndjsonIsOneEntryPerLine() throws IOException {
+        Path file = temporaryDirectory.resolve("result.ndjson");
+        try (AsyncResultWriter resultWriter = new AsyncResultWriter(file, OutputFormat.NDJSON, CORPUS)) {
+            resultWriter.submit(new int[]{1, 2});
+        }
+        assertEquals(List.of("\"AB\"", "\"BA\""), Files.readAllLines(file));
+    }
+
+    @Test
+    void binaryHoldsHeaderAndEntries() throws IOException {
+        Path file = temporaryDirectory.resolve("result.bin");
+        try (AsyncResultWriter resultWriter = new AsyncResultWriter(file, OutputFormat.BINARY, CORPUS)) {
+            resultWriter.submit(new int[]{0, 3});
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(AsyncResultWriter.BINARY_MAGIC, buffer.getInt());
+        assertEquals(AsyncResultWriter.BINARY_VERSION, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals("AABB", StandardCharsets.US_ASCII.decode(buffer).toString());
+    }
+
+    @Test
+    void binaryEntriesOfDifferentLengthsEndWithLineFeeds() throws IOException {
+        Path wordList = temporaryDirectory.resolve("words.txt");
+        Files.writeString(wordList, "cat\ncatalog\n", StandardCharsets.US_ASCII);
+        Path file = temporaryDirectory.resolve("result.bin");
+        try (AsyncResultWriter resultWriter = new AsyncResultWriter(file, OutputFormat.BINARY, WordListCorpus.load(wordList))) {
+            resultWriter.submit(new int[]{0, 1});
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        buffer.position(2 * Integer.BYTES);
+        assertEquals(0, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals("CAT\nCATALOG\n", StandardCharsets.US_ASCII.decode(buffer).toString());
+    }
+
+    @Test
+    void resultsSubmittedWhileBusyAreCoalesced() throws IOException, InterruptedException {
+        // The first write fails because the directory is missing, and its error handler keeps the writer busy
+        Path directory = temporaryDirectory.resolve("results");
+        Path file = directory.resolve("result.ndjson");
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicInteger errorCount = new AtomicInteger();
+        try (AsyncResultWriter resultWriter = new AsyncResultWriter(file, OutputFormat.NDJSON, CORPUS)) {
+            resultWriter.setErrorHandler(exception -> {
+                errorCount.incrementAndGet();
+                failed.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            resultWriter.submit(new int[]{0});
+            assertTrue(failed.await(30, TimeUnit.SECONDS));
+
+            resultWriter.submit(new int[]{1});
+            resultWriter.submit(new int[]{2});
+            resultWriter.submit(new int[]{3});
+            Files.createDirectory(directory);
+            resume.countDown();
+        }
+        assertEquals(List.of("\"BB\""), Files.readAllLines(file));
+        assertEquals(1, errorCount.get());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+}
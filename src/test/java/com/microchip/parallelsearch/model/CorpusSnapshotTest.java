@@ -0,0 +1,91 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The CorpusSnapshotTest class checks that every kind of corpus and its index survive a snapshot write and open.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class CorpusSnapshotTest {
+
+    private static final List<String> KEYS = List.of("A", "C", "AB", "CAT", "GATT", "ZZZZ");
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void fixedLengthCorpusRoundTrip() throws IOException {
+        CombinationStore store = new CombinatorialCorpus("ACGT", 6).materialize();
+        assertRoundTrip(store, SubstringIndex.build(store), "combinations:ACGT:6");
+    }
+
+    @Test
+    void variableLengthCorpusRoundTrip() throws IOException {
+        Path wordList = temporaryDirectory.resolve("words.txt");
+        Files.writeString(wordList, "gattaca\r\ncat\n\nCATALOG\nA\n", StandardCharsets.US_ASCII);
+        WordListCorpus corpus = WordListCorpus.load(wordList);
+        assertRoundTrip(corpus, SubstringIndex.build(corpus), "words:" + wordList);
+    }
+
+    @Test
+    void combinatorialCorpusRoundTrip() throws IOException {
+        assertRoundTrip(new CombinatorialCorpus("ACGT", 9), null, null);
+    }
+
+    @Test
+    void defaultCorpusRoundTrip() throws IOException, SearchException {
+        Path snapshotFile = temporaryDirectory.resolve("corpus.snapshot");
+        CorpusSnapshot.write(Combinations.STORE, SubstringIndex.getInstance(), null, snapshotFile);
+        try (InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine(CorpusSnapshot.open(snapshotFile))) {
+            // Still the default store, so it is counted analytically and scanned by the vector backend
+            assertSame(Combinations.STORE, searchEngine.getCorpus());
+            assertTrue(VectorScanner.supports(searchEngine.getCorpus(), QueryCompiler.compile("AB")));
+            searchEngine.setSearchMode(SearchMode.SCAN);
+            assertEquals(2 * 26 * 26 - 1, searchEngine.count("A?C"));
+            assertEquals(0L, searchEngine.getMetrics().getPhaseCounts().get(SearchPhase.SCAN.name()));
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = temporaryDirectory.resolve("other.snapshot");
+        Files.write(file, new byte[128]);
+        assertThrows(IOException.class, () -> CorpusSnapshot.open(file));
+    }
+
+    private void assertRoundTrip(Corpus corpus, SubstringIndex substringIndex, String source) throws IOException {
+        Path snapshotFile = temporaryDirectory.resolve("corpus.snapshot");
+        CorpusSnapshot.write(corpus, substringIndex, source, snapshotFile);
+        CorpusSnapshot snapshot = CorpusSnapshot.open(snapshotFile);
+
+        assertEquals(source == null ? "" : source, snapshot.getSource());
+        Corpus mapped = snapshot.getCorpus();
+        assertEquals(corpus.size(), mapped.size());
+        assertEquals(corpus.getMaxLength(), mapped.getMaxLength());
+        assertEquals(corpus.hasFixedLength(), mapped.hasFixedLength());
+        assertEquals(corpus.asList(), mapped.asList());
+        if (substringIndex == null) {
+            assertNull(snapshot.getSubstringIndex());
+        } else {
+            for (String key : KEYS) {
+                assertArrayEquals(substringIndex.lookup(key), snapshot.getSubstringIndex().lookup(key), key);
+            }
+        }
+    }
+}
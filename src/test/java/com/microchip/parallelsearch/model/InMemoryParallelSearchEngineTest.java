@@ -0,0 +1,165 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The InMemoryParallelSearchEngineTest class checks that the ways of answering a search agree with each other:
+ * counts with full searches, first matches with the start of full searches, index lookups with scans, analytic counts
+ * of literals and patterns with scans of the same entries, batch searches with single searches, the vector backend with
+ * the scalar one and literal searches with the entries containing them.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class InMemoryParallelSearchEngineTest {
+
+    private static final List<String> LITERALS = List.of("A", "Z", "AB", "ZZ", "ABC", "XYZ", "ABCD", "QQQQ", "ABCDE", "A1",
+            "AA", "ABA", "ACG", "CAT", "GATTACA", "TT");
+
+    private static final List<String> PATTERNS = List.of("A?C", "A*T", "^AC", "G$", "[AC]G", "AC|GT", "/A+C/", "/(AC|GT)T/",
+            "*", "?");
+
+    private static final int[] LIMITS = {0, 1, 7, 100, 5000, Integer.MAX_VALUE};
+
+    @TempDir
+    static Path temporaryDirectory;
+
+    private static InMemoryParallelSearchEngine combinationsEngine;
+    private static InMemoryParallelSearchEngine wordListEngine;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        CombinatorialCorpus corpus = new CombinatorialCorpus("ACGT", 7);
+        combinationsEngine = new InMemoryParallelSearchEngine(corpus);
+
+        // The same entries as a word list, which is counted by scanning instead of analytically
+        Path wordList = temporaryDirectory.resolve("words.txt");
+        Files.writeString(wordList, String.join("\n", corpus.asList()), StandardCharsets.US_ASCII);
+        wordListEngine = new InMemoryParallelSearchEngine(WordListCorpus.load(wordList));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        combinationsEngine.close();
+        wordListEngine.close();
+    }
+
+    @Test
+    void countMatchesSearch() throws SearchException {
+        for (InMemoryParallelSearchEngine searchEngine : List.of(combinationsEngine, wordListEngine)) {
+            searchEngine.setResultCache(null);
+            for (String searchText : queries()) {
+                assertEquals(searchEngine.search(searchText).getCount(), searchEngine.count(searchText), searchText);
+            }
+        }
+    }
+
+    @Test
+    void analyticCountMatchesScan() throws SearchException {
+        combinationsEngine.setResultCache(null);
+        wordListEngine.setResultCache(null);
+        for (String searchText : queries()) {
+            assertEquals(wordListEngine.search(searchText).getCount(), combinationsEngine.count(searchText), searchText);
+        }
+    }
+
+    @Test
+    void searchFirstIsPrefixOfSearch() throws SearchException {
+        for (InMemoryParallelSearchEngine searchEngine : List.of(combinationsEngine, wordListEngine)) {
+            searchEngine.setResultCache(null);
+            searchEngine.setPartitionPolicy(new PartitionPolicy(PartitionStrategy.FLAT, 4, 64));
+            try {
+                for (String searchText : queries()) {
+                    int[] ordinals = searchEngine.search(searchText).getOrdinals();
+                    for (int limit : LIMITS) {
+                        int[] prefix = Arrays.copyOf(ordinals, Math.min(limit, ordinals.length));
+                        assertArrayEquals(prefix, searchEngine.searchFirst(searchText, limit).getOrdinals(), searchText + " " + limit);
+                        SearchResult searchResult = searchEngine.countAndSearchFirst(searchText, limit);
+                        assertArrayEquals(prefix, searchResult.getOrdinals(), searchText + " " + limit);
+                        assertEquals(ordinals.length, searchResult.getTotalCount(), searchText + " " + limit);
+                    }
+                }
+            } finally {
+                searchEngine.setPartitionPolicy(PartitionPolicy.defaultPolicy());
+            }
+        }
+    }
+
+    @Test
+    void indexMatchesScan() throws SearchException {
+        try (InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine()) {
+            searchEngine.setResultCache(null);
+            for (String searchText : LITERALS) {
+                searchEngine.setSearchMode(SearchMode.INDEX);
+                SearchResult indexed = searchEngine.search(searchText);
+                searchEngine.setSearchMode(SearchMode.SCAN);
+                SearchResult scanned = searchEngine.search(searchText);
+                assertArrayEquals(scanned.getOrdinals(), indexed.getOrdinals(), searchText);
+                assertEquals(SearchMode.SCAN, scanned.getSearchMode(), searchText);
+                SearchMode expectedMode = searchText.length() <= SubstringIndex.MAX_KEY_LENGTH && searchText.chars().allMatch(Character::isLetter)
+                        ? SearchMode.INDEX : SearchMode.SCAN;
+                assertEquals(expectedMode, indexed.getSearchMode(), searchText);
+            }
+        }
+    }
+
+    @Test
+    void searchAllMatchesSearch() throws SearchException {
+        combinationsEngine.setResultCache(null);
+        List<String> searchTexts = queries();
+        List<SearchResult> results = combinationsEngine.searchAll(searchTexts);
+        for (int query = 0; query < searchTexts.size(); query++) {
+            String searchText = searchTexts.get(query);
+            assertArrayEquals(combinationsEngine.search(searchText).getOrdinals(), results.get(query).getOrdinals(), searchText);
+        }
+    }
+
+    @Test
+    void vectorBackendMatchesScalar() throws SearchException {
+        assumeTrue(ScanBackend.VECTOR.isAvailable(), "The vector module is not resolved");
+        try (InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine()) {
+            searchEngine.setResultCache(null);
+            searchEngine.setSearchMode(SearchMode.SCAN);
+            for (String searchText : LITERALS) {
+                searchEngine.setScanBackend(ScanBackend.SCALAR);
+                int[] scalar = searchEngine.search(searchText).getOrdinals();
+                int scalarCount = searchEngine.countAndSearchFirst(searchText, 3).getTotalCount();
+                searchEngine.setScanBackend(ScanBackend.VECTOR);
+                assertArrayEquals(scalar, searchEngine.search(searchText).getOrdinals(), searchText);
+                assertEquals(scalarCount, searchEngine.countAndSearchFirst(searchText, 3).getTotalCount(), searchText);
+            }
+        }
+    }
+
+    @Test
+    void literalMatchesContainingEntries() throws SearchException {
+        wordListEngine.setResultCache(null);
+        List<String> entries = wordListEngine.getCorpus().asList();
+        for (String searchText : LITERALS) {
+            List<String> expected = entries.stream().filter(entry -> entry.contains(searchText)).collect(Collectors.toList());
+            assertEquals(expected, new ArrayList<>(wordListEngine.search(searchText).getMatches()), searchText);
+        }
+    }
+
+    private static List<String> queries() {
+        List<String> queries = new ArrayList<>(LITERALS);
+        queries.addAll(PATTERNS);
+        return queries;
+    }
+}
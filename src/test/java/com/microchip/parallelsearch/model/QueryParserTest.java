@@ -0,0 +1,102 @@
+package com.microchip.parallelsearch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The QueryParserTest class checks what pattern queries match, and that malformed or too complex queries are rejected
+ * with the position of the error.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class QueryParserTest {
+
+    @Test
+    void globsMatchAnywhere() {
+        assertMatches("A?C", "XABC");
+        assertMatches("A*D", "ABCD");
+        assertMatches("A*D", "AD");
+        assertNotMatches("A?C", "ACXX");
+        assertMatches("*", "");
+    }
+
+    @Test
+    void anchorsPinTheTerm() {
+        assertMatches("^AB", "ABCD");
+        assertNotMatches("^AB", "CABD");
+        assertMatches("CD$", "ABCD");
+        assertNotMatches("CD$", "ACDB");
+        assertMatches("^A?$", "AB");
+        assertNotMatches("^A?$", "ABC");
+    }
+
+    @Test
+    void alternativesMatchEitherTerm() {
+        assertMatches("AB|^Z", "XABX");
+        assertMatches("AB|^Z", "ZXXX");
+        assertNotMatches("AB|^Z", "XZXX");
+        assertMatches("/(AC|GT)T/", "GTTA");
+        assertNotMatches("/(AC|GT)T/", "ACGT");
+    }
+
+    @Test
+    void classesMatchTheirCharacters() {
+        assertMatches("[AEIOU]B", "XOBX");
+        assertNotMatches("[AEIOU]B", "XCBX");
+        assertMatches("[^A-Y]", "ABZ");
+        assertNotMatches("[^A-Y]", "ABY");
+        assertMatches("[a-c]x", "BX");
+        assertMatches("[0-9]", "A1B2");
+        assertMatches("[A-]", "-");
+    }
+
+    @Test
+    void regexQuantifiersRepeatTheAtom() {
+        assertMatches("/^A{2,3}$/", "AAA");
+        assertNotMatches("/^A{2,3}$/", "AAAA");
+        assertMatches("/^A+B?$/", "AAB");
+        assertMatches("/^.{4}$/", "WXYZ");
+    }
+
+    @Test
+    void malformedQueriesAreRejected() {
+        for (String query : new String[]{"[]", "[AB", "A]", "A^B", "A$B", "/A{3,2}/", "/(AB/", "/AB)/", "/A**/",
+                "/A{/", "/*A/"}) {
+            assertThrows(IllegalArgumentException.class, () -> new QueryParser(query).parse(), query);
+        }
+    }
+
+    @Test
+    void reversedRangeIsRejected() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new QueryParser("A[Z-A]").parse());
+        assertTrue(exception.getMessage().contains("'Z-A' at position 2"), exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new QueryParser("[c-a]").parse());
+    }
+
+    @Test
+    void positionsAreLimited() {
+        assertDoesNotThrow(() -> new QueryParser("/A{" + QueryParser.MAX_POSITIONS + "}/").parse());
+        assertThrows(IllegalArgumentException.class, () -> new QueryParser("/A{" + QueryParser.MAX_POSITIONS + "}B/").parse());
+        assertThrows(IllegalArgumentException.class, () -> new QueryParser("/A{" + (QueryParser.MAX_POSITIONS + 1) + "}/").parse());
+        assertThrows(IllegalArgumentException.class, () -> new QueryParser("/(A{32}){3}/").parse());
+    }
+
+    private static void assertMatches(String query, String entry) {
+        assertTrue(matches(query, entry), query + " should match " + entry);
+    }
+
+    private static void assertNotMatches(String query, String entry) {
+        assertFalse(matches(query, entry), query + " should not match " + entry);
+    }
+
+    private static boolean matches(String query, String entry) {
+        byte[] letters = entry.getBytes(StandardCharsets.US_ASCII);
+        return new QueryParser(query).parse().matches(letters, 0, letters.length);
+    }
+}
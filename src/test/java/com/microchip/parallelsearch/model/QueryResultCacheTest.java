@@ -0,0 +1,118 @@
+package com.microchip.parallelsearch.model;
+
+import com.microchip.parallelsearch.exception.SearchException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The QueryResultCacheTest class checks the eviction order, the bounds and the counters of the result cache,
+ * and that the engine refines cached supersets into the same results as a scan.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class QueryResultCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        QueryResultCache cache = new QueryResultCache(2, 100);
+        cache.put("A", new int[]{1});
+        cache.put("B", new int[]{2});
+        cache.get("A");
+        cache.put("C", new int[]{3});
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("B"));
+        assertArrayEquals(new int[]{1}, cache.get("A"));
+        assertArrayEquals(new int[]{3}, cache.get("C"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void ordinalBoundIsKept() {
+        QueryResultCache cache = new QueryResultCache(10, 5);
+        cache.put("A", new int[]{1, 2, 3});
+        cache.put("B", new int[]{4, 5, 6});
+        assertNull(cache.get("A"));
+        assertEquals(3, cache.getOrdinalCount());
+
+        // A result larger than the whole cache is not cached and evicts nothing
+        cache.put("C", new int[]{1, 2, 3, 4, 5, 6});
+        assertNull(cache.get("C"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        // Replacing a result accounts for the ordinals of the previous one
+        cache.put("B", new int[]{7});
+        assertEquals(1, cache.getOrdinalCount());
+    }
+
+    @Test
+    void lookupsAreCounted() {
+        QueryResultCache cache = new QueryResultCache(10, 100);
+        cache.put("AB", new int[]{1, 2});
+        cache.get("AB");
+        cache.get("XY");
+        cache.findSuperset("ABC");
+        cache.findSuperset("XYZ");
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getRefinementCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void smallerOfLongestPrefixAndSuffixIsTheSuperset() {
+        QueryResultCache cache = new QueryResultCache(10, 100);
+        int[] prefix = {1, 2, 3};
+        int[] suffix = {1, 2};
+        cache.put("A", new int[]{1, 2, 3, 4, 5, 6});
+        cache.put("ABC", prefix);
+        cache.put("CD", suffix);
+        cache.put("BC", new int[]{1});
+
+        // Infixes are not probed
+        assertSame(suffix, cache.findSuperset("ABCD"));
+        assertSame(prefix, cache.findSuperset("ABCX"));
+        assertNull(cache.findSuperset("XBCY"));
+    }
+
+    @Test
+    void nonPositiveBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryResultCache(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new QueryResultCache(1, 0));
+    }
+
+    @Test
+    void refinedResultMatchesScan() throws SearchException {
+        try (InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine()) {
+            searchEngine.setSearchMode(SearchMode.SCAN);
+            QueryResultCache cache = searchEngine.getResultCache();
+            searchEngine.search("QU");
+            int[] refined = searchEngine.search("QUA").getOrdinals();
+            int[] extendedAtStart = searchEngine.search("SQU").getOrdinals();
+            assertEquals(2, cache.getRefinementCount());
+
+            searchEngine.setResultCache(null);
+            assertArrayEquals(searchEngine.search("QUA").getOrdinals(), refined);
+            assertArrayEquals(searchEngine.search("SQU").getOrdinals(), extendedAtStart);
+        }
+    }
+
+    @Test
+    void indexIsPreferredToRefinement() throws SearchException {
+        try (InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine()) {
+            QueryResultCache cache = searchEngine.getResultCache();
+            searchEngine.search("A");
+            searchEngine.search("AB");
+            searchEngine.count("ABC");
+            searchEngine.searchFirst("ABCD", 5);
+            assertEquals(0, cache.getRefinementCount());
+            assertEquals(0, cache.getHitCount());
+        }
+    }
+}
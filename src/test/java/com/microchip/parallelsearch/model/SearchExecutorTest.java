@@ -0,0 +1,76 @@
+package com.microchip.parallelsearch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The SearchExecutorTest class checks that both execution modes run no more partitions at once than the parallelism.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class SearchExecutorTest {
+
+    private static final int PARALLELISM = 2;
+    private static final int PARTITION_COUNT = 32;
+
+    @Test
+    void invokeAllRespectsParallelism() throws ExecutionException, InterruptedException {
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            try (SearchExecutor searchExecutor = new SearchExecutor(executionMode, PARALLELISM)) {
+                AtomicInteger running = new AtomicInteger();
+                AtomicInteger maxRunning = new AtomicInteger();
+                List<Callable<Integer>> partitions = new ArrayList<>();
+                for (int index = 0; index < PARTITION_COUNT; index++) {
+                    int partitionIndex = index;
+                    partitions.add(() -> {
+                        track(running, maxRunning);
+                        return partitionIndex;
+                    });
+                }
+                List<Integer> results = searchExecutor.invokeAll(partitions);
+                assertEquals(PARTITION_COUNT, results.size());
+                assertEquals(PARTITION_COUNT - 1, results.get(PARTITION_COUNT - 1));
+                assertTrue(maxRunning.get() <= PARALLELISM, executionMode + " ran " + maxRunning.get() + " partitions at once");
+            }
+        }
+    }
+
+    @Test
+    void executeRespectsParallelism() throws InterruptedException {
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            try (SearchExecutor searchExecutor = new SearchExecutor(executionMode, PARALLELISM)) {
+                AtomicInteger running = new AtomicInteger();
+                AtomicInteger maxRunning = new AtomicInteger();
+                CountDownLatch done = new CountDownLatch(PARTITION_COUNT);
+                for (int index = 0; index < PARTITION_COUNT; index++) {
+                    searchExecutor.execute(() -> {
+                        try {
+                            track(running, maxRunning);
+                        } catch (InterruptedException interruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                        done.countDown();
+                    });
+                }
+                assertTrue(done.await(30, TimeUnit.SECONDS));
+                assertTrue(maxRunning.get() <= PARALLELISM, executionMode + " ran " + maxRunning.get() + " partitions at once");
+            }
+        }
+    }
+
+    private static void track(AtomicInteger running, AtomicInteger maxRunning) throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(5);
+        running.decrementAndGet();
+    }
+}
@@ -0,0 +1,218 @@
+package com.microchip.parallelsearch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The SearchPublisherTest class checks that a search publisher delivers batches in order and only on demand,
+ * runs no further ahead of its subscriber than its window, and ends with onError when a partition is rejected,
+ * a partition fails or the subscriber throws.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class SearchPublisherTest {
+
+    private static final Corpus CORPUS = new CombinatorialCorpus("ABC", 2);
+
+    @Test
+    void batchesAreDeliveredInOrderOnDemand() {
+        int[][] result = new int[1][];
+        SearchPublisher publisher = publisher(Runnable::run, 5, 5, new AtomicInteger(), ordinals -> result[0] = ordinals);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of(List.of(0)), subscriber.batches);
+        assertFalse(subscriber.completed);
+
+        // The partition without matches is skipped
+        subscriber.subscription.request(10);
+        assertEquals(List.of(List.of(0), List.of(1), List.of(3), List.of(4)), subscriber.batches);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, result[0]);
+    }
+
+    @Test
+    void partitionsAreSubmittedWithinTheWindow() {
+        Queue<Runnable> submitted = new ArrayDeque<>();
+        AtomicInteger submitCount = new AtomicInteger();
+        Executor executor = task -> {
+            submitCount.incrementAndGet();
+            submitted.add(task);
+        };
+        SearchPublisher publisher = publisher(executor, 10, 2, new AtomicInteger(), null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals(2, submitCount.get());
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+        // One batch was taken, so the window has moved by one partition and stops there
+        assertEquals(List.of(List.of(0)), subscriber.batches);
+        assertEquals(3, submitCount.get());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+        assertEquals(10, submitCount.get());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void cancelStopsPartitionsNotStarted() {
+        Queue<Runnable> submitted = new ArrayDeque<>();
+        AtomicInteger scanned = new AtomicInteger();
+        SearchPublisher publisher = publisher(submitted::add, 4, 4, scanned, null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+        assertEquals(0, scanned.get());
+        assertTrue(subscriber.batches.isEmpty());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void rejectedPartitionIsSignalled() {
+        RejectedExecutionException rejection = new RejectedExecutionException("Shut down");
+        SearchPublisher publisher = publisher(task -> {
+            throw rejection;
+        }, 4, 4, new AtomicInteger(), null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertSame(rejection, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void failedPartitionIsSignalled() {
+        IllegalStateException failure = new IllegalStateException("Partition failed");
+        SearchPublisher publisher = new SearchPublisher(CORPUS, new SearchMetrics(), Runnable::run, 4, 4, index -> {
+            if (index == 1) {
+                throw failure;
+            }
+            return new int[]{index};
+        }, null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertSame(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void subscriberExceptionIsSignalled() {
+        int[][] result = new int[1][];
+        SearchPublisher publisher = publisher(Runnable::run, 4, 4, new AtomicInteger(), ordinals -> result[0] = ordinals);
+        IllegalStateException failure = new IllegalStateException("Subscriber failed");
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(ResultBatch item) {
+                super.onNext(item);
+                throw failure;
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(1, subscriber.batches.size());
+        assertSame(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+        assertNull(result[0]);
+    }
+
+    @Test
+    void nonPositiveRequestIsSignalled() {
+        SearchPublisher publisher = publisher(Runnable::run, 4, 4, new AtomicInteger(), null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    }
+
+    @Test
+    void secondSubscriberIsRejected() {
+        SearchPublisher publisher = publisher(Runnable::run, 4, 4, new AtomicInteger(), null);
+        publisher.subscribe(new RecordingSubscriber());
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        assertInstanceOf(IllegalStateException.class, subscriber.error);
+    }
+
+    /**
+     * Creates a publisher whose partition with index i matches the ordinal i, except partition 2 which matches nothing.
+     */
+    private static SearchPublisher publisher(Executor executor, int partitionCount, int window, AtomicInteger scanned,
+                                             Consumer<int[]> resultConsumer) {
+        return new SearchPublisher(CORPUS, new SearchMetrics(), executor, partitionCount, window, index -> {
+            scanned.incrementAndGet();
+            return index == 2 ? new int[0] : new int[]{index};
+        }, resultConsumer);
+    }
+
+    /**
+     * The RecordingSubscriber class records the ordinals of every batch and how the subscription ended.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<ResultBatch> {
+
+        final List<List<Integer>> batches = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ResultBatch item) {
+            List<Integer> ordinals = new ArrayList<>();
+            for (int ordinal : item.getOrdinals()) {
+                ordinals.add(ordinal);
+            }
+            batches.add(ordinals);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.microchip.parallelsearch.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The WordListCorpusTest class checks how a word list file is loaded into a corpus.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class WordListCorpusTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void wordsAreUpperCasedAndBlankLinesSkipped() throws IOException {
+        Path wordList = temporaryDirectory.resolve("words.txt");
+        Files.writeString(wordList, "gattaca\r\ncat\n\nCATALOG\nA\n", StandardCharsets.US_ASCII);
+        WordListCorpus corpus = WordListCorpus.load(wordList);
+        assertEquals(List.of("GATTACA", "CAT", "CATALOG", "A"), corpus.asList());
+        assertEquals(7, corpus.getMaxLength());
+        assertFalse(corpus.hasFixedLength());
+    }
+
+    @Test
+    void nonAsciiWordListIsRejected() throws IOException {
+        Path wordList = temporaryDirectory.resolve("words.txt");
+        Files.writeString(wordList, "cat\ncafé\n", StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> WordListCorpus.load(wordList));
+    }
+}
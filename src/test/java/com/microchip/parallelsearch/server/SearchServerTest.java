@@ -0,0 +1,119 @@
+package com.microchip.parallelsearch.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchip.parallelsearch.exception.SearchException;
+import com.microchip.parallelsearch.model.InMemoryParallelSearchEngine;
+import com.microchip.parallelsearch.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The SearchServerTest class checks the responses of the search server: the count and first matches of a search,
+ * the rejection of malformed requests with 400, and the rejection of requests over the in-flight cap with 503.
+ *
+ * @author Ashish Kumar Mahuri
+ */
+class SearchServerTest {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void searchReturnsCountAndFirstMatches() throws IOException, InterruptedException, SearchException {
+        InMemoryParallelSearchEngine searchEngine = new InMemoryParallelSearchEngine();
+        try (SearchServer searchServer = new SearchServer(searchEngine, 0, 2, 1000, MAX_LIMIT)) {
+            HttpResponse<String> response = get(searchServer, "/search?q=ab&limit=3");
+            assertEquals(200, response.statusCode());
+            JsonNode body = objectMapper.readTree(response.body());
+            assertEquals("ab", body.get("query").asText());
+            assertEquals(searchEngine.count("ab"), body.get("count").asInt());
+            assertEquals(3, body.get("matches").size());
+            assertEquals("AAAB", body.get("matches").get(0).asText());
+            assertEquals(1, searchServer.getAdmittedCount());
+        }
+    }
+
+    @Test
+    void malformedRequestsAreRejected() throws IOException, InterruptedException {
+        try (SearchServer searchServer = new SearchServer(new InMemoryParallelSearchEngine(), 0, 2, 1000, MAX_LIMIT)) {
+            for (String path : new String[]{"/search", "/search?limit=3", "/search?q=ab&limit=-1", "/search?q=ab&limit=many",
+                    "/search?q=ab&limit=" + (MAX_LIMIT + 1), "/search?q=ab&limit=2147483647", "/search?q=%5BZ-A%5D", "/search?q="}) {
+                assertEquals(400, get(searchServer, path).statusCode(), path);
+            }
+            HttpRequest post = HttpRequest.newBuilder(uri(searchServer, "/search?q=ab")).POST(HttpRequest.BodyPublishers.noBody()).build();
+            assertEquals(405, httpClient.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+            // Only the two invalid search texts were admitted, to be rejected by the engine
+            assertEquals(2, searchServer.getAdmittedCount());
+        }
+    }
+
+    @Test
+    void searchesOverTheCapAreRejected() throws Exception {
+        BlockingSearchEngine searchEngine = new BlockingSearchEngine();
+        try (SearchServer searchServer = new SearchServer(searchEngine, 0, 1, 0, MAX_LIMIT)) {
+            CompletableFuture<HttpResponse<String>> first = httpClient.sendAsync(
+                    HttpRequest.newBuilder(uri(searchServer, "/search?q=ab")).build(), HttpResponse.BodyHandlers.ofString());
+            assertTrue(searchEngine.entered.await(30, TimeUnit.SECONDS));
+
+            HttpResponse<String> second = get(searchServer, "/search?q=cd");
+            assertEquals(503, second.statusCode());
+            assertEquals("1", second.headers().firstValue("Retry-After").orElse(null));
+
+            searchEngine.release.countDown();
+            HttpResponse<String> firstResponse = first.get(30, TimeUnit.SECONDS);
+            assertEquals(200, firstResponse.statusCode());
+            // Without a limit, a search returns as many matches as the maximum limit allows
+            assertEquals(MAX_LIMIT, objectMapper.readTree(firstResponse.body()).get("matches").size());
+            assertEquals(1, searchServer.getAdmittedCount());
+            assertEquals(1, searchServer.getRejectedCount());
+
+            HttpResponse<String> metrics = get(searchServer, "/metrics");
+            assertEquals(200, metrics.statusCode());
+            assertTrue(metrics.body().contains("admitted=1, rejected=1"), metrics.body());
+        } finally {
+            searchEngine.release.countDown();
+        }
+    }
+
+    private HttpResponse<String> get(SearchServer searchServer, String path) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(uri(searchServer, path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(SearchServer searchServer, String path) {
+        return URI.create("http://localhost:" + searchServer.getAddress().getPort() + path);
+    }
+
+    /**
+     * The BlockingSearchEngine class holds every search until it is released, so a search stays in flight.
+     */
+    private static final class BlockingSearchEngine extends InMemoryParallelSearchEngine {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public SearchResult countAndSearchFirst(String searchText, int limit) throws SearchException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return super.countAndSearchFirst(searchText, limit);
+        }
+    }
+}